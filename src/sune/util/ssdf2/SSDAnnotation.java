@@ -84,6 +84,13 @@ public class SSDAnnotation extends SSDCollection {
 		return new SSDAnnotation(getName(), copyObj);
 	}
 	
+	@Override
+	SSDAnnotation newCopy(SSDNode parent, Map<String, SSDNode> objects) {
+		SSDAnnotation copy = new SSDAnnotation(getName(), objects);
+		copy.parent = parent;
+		return copy;
+	}
+	
 	@Override
 	public boolean equals(Object obj) {
 		if((obj == null
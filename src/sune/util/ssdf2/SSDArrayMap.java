@@ -0,0 +1,214 @@
+package sune.util.ssdf2;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map of nodes of an array. The nodes are stored in an array, their names are
+ * their indexes, therefore a node is accessed directly by its index and no
+ * name has to be created, nor hashed. Removing a node shifts all the following
+ * nodes, i.e. their indexes are decreased, as is expected of an array.<br><br>
+ * Once a node is put with a name that is not an index of the array, nor the
+ * next index, the nodes are moved to a regular map, so that any name can be
+ * used. The map is used until it is cleared.*/
+final class SSDArrayMap extends AbstractMap<String, SSDNode> {
+	
+	private static final SSDNode[] EMPTY = {};
+	// Maximum number of digits of an index that cannot overflow
+	private static final int MAX_DIGITS = 9;
+	
+	private SSDNode[] nodes = EMPTY;
+	private int 	  size;
+	// Map of the nodes, used once a node with other name than an index is put
+	private Map<String, SSDNode> map;
+	
+	/**
+	 * Gets the index that the given name represents, or {@code -1}, if the name
+	 * is not written the same way as {@link Integer#toString(int)} would write
+	 * a non-negative index.*/
+	static final int index(Object name) {
+		if(!(name instanceof String))
+			return -1;
+		String s = (String) name;
+		int l = s.length();
+		if((l == 0 || l > MAX_DIGITS || (l > 1 && s.charAt(0) == '0')))
+			return -1;
+		int n = 0;
+		for(int i = 0, d; i < l; ++i) {
+			if((d = s.charAt(i) - '0') < 0 || d > 9)
+				return -1;
+			n = n * 10 + d;
+		}
+		return n;
+	}
+	
+	/**
+	 * Gets the node at the given index, or {@code null}, if there is no such
+	 * node.*/
+	SSDNode get(int index) {
+		if((map != null))
+			return map.get(SSDInterner.index(index));
+		return index >= 0 && index < size ? nodes[index] : null;
+	}
+	
+	@Override
+	public int size() {
+		return map != null ? map.size() : size;
+	}
+	
+	@Override
+	public boolean containsKey(Object key) {
+		if((map != null))
+			return map.containsKey(key);
+		int i = index(key);
+		return i >= 0 && i < size;
+	}
+	
+	@Override
+	public SSDNode get(Object key) {
+		if((map != null))
+			return map.get(key);
+		int i = index(key);
+		return i >= 0 && i < size ? nodes[i] : null;
+	}
+	
+	@Override
+	public SSDNode put(String key, SSDNode value) {
+		if((map != null))
+			return map.put(key, value);
+		int i = index(key);
+		if((i >= 0 && i < size)) {
+			SSDNode prev = nodes[i];
+			nodes[i] = value;
+			return prev;
+		}
+		if((i < 0 || i > size))
+			return toMap().put(key, value);
+		if((size == nodes.length))
+			nodes = Arrays.copyOf(nodes, Math.max(8, size + (size >> 1)));
+		nodes[size++] = value;
+		return null;
+	}
+	
+	@Override
+	public SSDNode remove(Object key) {
+		if((map != null))
+			return map.remove(key);
+		int i = index(key);
+		return i >= 0 && i < size ? removeAt(i) : null;
+	}
+	
+	private final SSDNode removeAt(int i) {
+		SSDNode prev = nodes[i];
+		System.arraycopy(nodes, i + 1, nodes, i, size - i - 1);
+		nodes[--size] = null;
+		return prev;
+	}
+	
+	@Override
+	public void clear() {
+		Arrays.fill(nodes, 0, size, null);
+		size = 0;
+		map  = null;
+	}
+	
+	/**
+	 * Whether the names of the nodes are their indexes, i.e. whether the nodes
+	 * are still stored in the array.*/
+	boolean isIndexed() {
+		return map == null;
+	}
+	
+	private final Map<String, SSDNode> toMap() {
+		Map<String, SSDNode> m = new LinkedHashMap<>();
+		for(int i = 0; i < size; ++i)
+			m.put(SSDInterner.index(i), nodes[i]);
+		nodes = EMPTY;
+		size  = 0;
+		map   = m;
+		return m;
+	}
+	
+	@Override
+	public Collection<SSDNode> values() {
+		return map != null ? map.values() : new Values();
+	}
+	
+	@Override
+	public Set<Entry<String, SSDNode>> entrySet() {
+		return map != null ? map.entrySet() : new Entries();
+	}
+	
+	private abstract class Iter<T> implements Iterator<T> {
+		
+		int next;
+		int last = -1;
+		
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+		
+		final int nextIndex() {
+			if((next >= size))
+				throw new NoSuchElementException();
+			return last = next++;
+		}
+		
+		@Override
+		public void remove() {
+			if((last < 0))
+				throw new IllegalStateException();
+			removeAt(last);
+			next = last;
+			last = -1;
+		}
+	}
+	
+	private final class Values extends AbstractCollection<SSDNode> {
+		
+		@Override
+		public Iterator<SSDNode> iterator() {
+			return new Iter<SSDNode>() {
+				
+				@Override
+				public SSDNode next() {
+					return nodes[nextIndex()];
+				}
+			};
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+	
+	private final class Entries extends AbstractSet<Entry<String, SSDNode>> {
+		
+		@Override
+		public Iterator<Entry<String, SSDNode>> iterator() {
+			return new Iter<Entry<String, SSDNode>>() {
+				
+				@Override
+				public Entry<String, SSDNode> next() {
+					int i = nextIndex();
+					return new SimpleEntry<>(SSDInterner.index(i), nodes[i]);
+				}
+			};
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
\ No newline at end of file
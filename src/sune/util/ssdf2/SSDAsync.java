@@ -0,0 +1,166 @@
+package sune.util.ssdf2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Reading and writing of whole files using asynchronous file channels. No
+ * thread is blocked while waiting for the I/O operations, the returned futures
+ * are completed by the threads of the given executor.*/
+final class SSDAsync {
+	
+	private static final Set<OpenOption> OPTIONS_READ
+		= Collections.<OpenOption>singleton(StandardOpenOption.READ);
+	private static final Set<OpenOption> OPTIONS_WRITE
+		= Collections.<OpenOption>unmodifiableSet(EnumSet.of(StandardOpenOption.WRITE,
+			StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING));
+	
+	// Forbid anyone to create an instance of this class
+	private SSDAsync() {
+	}
+	
+	/**
+	 * Reads all bytes of the given file. The returned buffer is ready to be
+	 * read from. If the executor is {@code null}, the default thread pool of
+	 * asynchronous channels is used.*/
+	static final CompletableFuture<ByteBuffer> read(Path path, ExecutorService executor) {
+		CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+		AsynchronousFileChannel channel = null;
+		try {
+			channel = AsynchronousFileChannel.open(path, OPTIONS_READ, executor);
+			long size = channel.size();
+			if((size > Integer.MAX_VALUE)) {
+				close(channel);
+				future.completeExceptionally(new IllegalStateException("File is too large"));
+				return future;
+			}
+			ByteBuffer buffer = ByteBuffer.allocate((int) size);
+			channel.read(buffer, 0L, null, new ReadHandler(channel, buffer, future));
+		} catch(Throwable ex) {
+			// Not only I/O errors, the channel may also be closed or shut down
+			if((channel != null))
+				close(channel);
+			future.completeExceptionally(readError(ex));
+		}
+		return future;
+	}
+	
+	/**
+	 * Writes all remaining bytes of the given buffer to the given file. The
+	 * file is created if it does not exist, otherwise it is truncated first.*/
+	static final CompletableFuture<Void> write(Path path, ByteBuffer buffer, ExecutorService executor) {
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		AsynchronousFileChannel channel = null;
+		try {
+			channel = AsynchronousFileChannel.open(path, OPTIONS_WRITE, executor);
+			if((!buffer.hasRemaining())) {
+				close(channel);
+				future.complete(null);
+				return future;
+			}
+			channel.write(buffer, 0L, null, new WriteHandler(channel, buffer, future));
+		} catch(Throwable ex) {
+			if((channel != null))
+				close(channel);
+			future.completeExceptionally(writeError(ex));
+		}
+		return future;
+	}
+	
+	private static final IllegalStateException readError(Throwable cause) {
+		return new IllegalStateException("An error has occurred while trying to read the given file", cause);
+	}
+	
+	private static final IllegalStateException writeError(Throwable cause) {
+		return new IllegalStateException("An error has occurred while trying to write the given file", cause);
+	}
+	
+	private static final void close(AsynchronousFileChannel channel) {
+		try {
+			channel.close();
+		} catch(IOException ex) {
+		}
+	}
+	
+	private static final class ReadHandler implements CompletionHandler<Integer, Void> {
+		
+		private final AsynchronousFileChannel channel;
+		private final ByteBuffer buffer;
+		private final CompletableFuture<ByteBuffer> future;
+		
+		ReadHandler(AsynchronousFileChannel channel, ByteBuffer buffer, CompletableFuture<ByteBuffer> future) {
+			this.channel = channel;
+			this.buffer  = buffer;
+			this.future  = future;
+		}
+		
+		@Override
+		public void completed(Integer result, Void attachment) {
+			// Read the rest of the file, unless its end has been reached
+			if((result >= 0 && buffer.hasRemaining())) {
+				try {
+					channel.read(buffer, buffer.position(), null, this);
+				} catch(Throwable ex) {
+					failed(ex, attachment);
+				}
+				return;
+			}
+			close(channel);
+			buffer.flip();
+			future.complete(buffer);
+		}
+		
+		@Override
+		public void failed(Throwable ex, Void attachment) {
+			close(channel);
+			future.completeExceptionally(readError(ex));
+		}
+	}
+	
+	private static final class WriteHandler implements CompletionHandler<Integer, Void> {
+		
+		private final AsynchronousFileChannel channel;
+		private final ByteBuffer buffer;
+		private final CompletableFuture<Void> future;
+		// Position in the file of the next write
+		private long position;
+		
+		WriteHandler(AsynchronousFileChannel channel, ByteBuffer buffer, CompletableFuture<Void> future) {
+			this.channel = channel;
+			this.buffer  = buffer;
+			this.future  = future;
+		}
+		
+		@Override
+		public void completed(Integer result, Void attachment) {
+			position += result;
+			// Write the rest of the buffer, a single write may be partial
+			if((buffer.hasRemaining())) {
+				try {
+					channel.write(buffer, position, null, this);
+				} catch(Throwable ex) {
+					failed(ex, attachment);
+				}
+				return;
+			}
+			close(channel);
+			future.complete(null);
+		}
+		
+		@Override
+		public void failed(Throwable ex, Void attachment) {
+			close(channel);
+			future.completeExceptionally(writeError(ex));
+		}
+	}
+}
\ No newline at end of file
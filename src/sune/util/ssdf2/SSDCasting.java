@@ -24,16 +24,16 @@ public final class SSDCasting {
 	static final Object _castObject(SSDObject object) {
 		switch(object.getType()) {
 			case BOOLEAN:
-				return object.getFormattedValue().booleanValue();
+				return object.booleanValue();
 			case INTEGER:
-				return object.getFormattedValue().longValue();
+				return object.longValue();
 			case DECIMAL:
-				return object.getFormattedValue().doubleValue();
+				return object.doubleValue();
 			case STRING:
 			case STRING_VAR:
 			// also the unknown type should return a value
 			case UNKNOWN:
-				return object.getFormattedValue().stringValue();
+				return object.stringValue();
 			case NULL:
 				return null;
 		}
@@ -96,7 +96,7 @@ public final class SSDCasting {
 					SSDNode node;
 					if((node = args.get(name)) != null) {
 						if((node.isObject())) {
-							vals[index++] = ((SSDObject) node).getFormattedValue().value();
+							vals[index++] = ((SSDObject) node).value();
 						} else if((node.isCollection())) {
 							Object val = _castCollection((SSDCollection) node);
 							// convert a set to an object array
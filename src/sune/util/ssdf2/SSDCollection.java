@@ -17,6 +17,7 @@ import static sune.util.ssdf2.SSDF.CHAR_TAB;
 import static sune.util.ssdf2.SSDF.WORD_NULL;
 
 import java.lang.reflect.Array;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,6 +29,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 
 import sune.util.ssdf2.exception.NotFoundException;
@@ -36,21 +39,21 @@ import sune.util.ssdf2.exception.TypeMismatchException;
 public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	// Protected properties
-	protected final SSDProperty<SSDNode> parent;
-	protected final SSDProperty<String>  name;
+	protected SSDNode parent;
+	protected String  name;
 	
 	// Private properties
 	private final Map<String, SSDNode> objects;
 	private final boolean 			   isArray;
 	
-	// Annotations
-	private final Set<SSDAnnotation> annotations;
+	// Annotations, created when the first one is added
+	private Set<SSDAnnotation> annotations;
 	
-	// Comments
-	private final Set<SSDComment> comments;
+	// Comments, created when the first one is added
+	private Set<SSDComment> comments;
 	
 	SSDCollection(SSDNode parent, String name, boolean isArray) {
-		this(parent, name, isArray, new LinkedHashMap<>(), null, null);
+		this(parent, name, isArray, newMap(isArray), null, null);
 	}
 	
 	SSDCollection(SSDNode parent, String name, boolean isArray,
@@ -58,34 +61,33 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 			Set<SSDAnnotation> annotations,
 			Set<SSDComment> comments) {
 		checkArgs(parent, name, objects, false);
-		this.parent  = new SSDProperty<>(parent);
-		this.name 	 = new SSDProperty<>(name);
+		this.parent  = parent;
+		this.name 	 = name;
 		this.isArray = isArray;
 		this.objects = objects;
+		if((objects instanceof SSDPersistentMap))
+			((SSDPersistentMap) objects).setOwner(this);
 		// Annotations
-		if((annotations == null))
-			annotations = new LinkedHashSet<>();
 		this.annotations = annotations;
 		// Comments
-		if((comments == null))
-			comments = new LinkedHashSet<>();
 		this.comments = comments;
 	}
 	
 	// Method for creating the main parent (object) of the data structure
 	SSDCollection(SSDNode parent, boolean isArray) {
-		Map<String, SSDNode> objects = new LinkedHashMap<>();
+		Map<String, SSDNode> objects = newMap(isArray);
   		checkArgs(parent, null, objects, true);
-  		this.parent  = new SSDProperty<>(parent);
-  		this.name 	 = new SSDProperty<>(null); // main object has no name
+  		this.parent  = parent;
+  		this.name 	 = null; // main object has no name
   		this.isArray = isArray; // main object can also be an array
   		this.objects = objects;
-  		// Annotations
-  		this.annotations = new LinkedHashSet<>();
-  		// Comments
-  		this.comments = new LinkedHashSet<>();
   	}
 	
+	// Nodes of an array are stored by their indexes
+	static final Map<String, SSDNode> newMap(boolean isArray) {
+		return isArray ? new SSDArrayMap() : new LinkedHashMap<>();
+	}
+	
 	static final void checkArgs(SSDNode parent, String name, Map<String, SSDNode> objects,
 			boolean isMainObject) { // Needs to be checked
 		if(name == null && parent != null && !isMainObject) {
@@ -104,6 +106,12 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 		}
 	}
 	
+	void checkIfMutable() {
+		if((isFrozen())) {
+			throw new UnsupportedOperationException("SSDCollection is frozen");
+		}
+	}
+	
 	void checkName(String name) {
 		if((name == null || name.isEmpty())) {
 			throw new IllegalArgumentException("Name cannot be null or empty");
@@ -127,7 +135,7 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	void addObject(SSDNode object) {
 		checkIfArray();
-		String name = Integer.toString(nextIndex());
+		String name = SSDInterner.index(nextIndex());
 		addObject(name, object);
 	}
 	
@@ -137,28 +145,28 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	void addAnnotations0(Set<SSDAnnotation> anns) {
 		if((anns != null)) {
-			for(SSDAnnotation a : anns) {
-				a.parent.set(this);
-				annotations.add(a);
-			}
+			for(SSDAnnotation a : anns)
+				addAnnotation0(a);
 		}
 	}
 	
 	void addAnnotation0(SSDAnnotation ann) {
 		if((ann != null)) {
-			ann.parent.set(this);
+			ann.parent = this;
+			if((annotations == null))
+				annotations = new LinkedHashSet<>();
 			annotations.add(ann);
 		}
 	}
 	
 	// Annotations
 	Set<SSDAnnotation> annotations() {
-		return annotations;
+		return annotations != null ? annotations : Collections.<SSDAnnotation>emptySet();
 	}
 	
 	// Comments
 	Set<SSDComment> comments() {
-		return comments;
+		return comments != null ? comments : Collections.<SSDComment>emptySet();
 	}
 	
 	int nextIndex() {
@@ -177,6 +185,36 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 		return new SSDCollection(null, "", isArray);
 	}
 	
+	/**
+	 * Creates a new empty concurrent collection, that can be read and modified
+	 * by any number of threads at once. See {@link #isConcurrent()}.*/
+	public static final SSDCollection concurrent() {
+		return concurrent(false);
+	}
+	
+	public static final SSDCollection concurrentArray() {
+		return concurrent(true);
+	}
+	
+	static final SSDCollection concurrent(boolean isArray) {
+		return new SSDCollection(null, "", isArray, new SSDConcurrentMap(isArray), null, null);
+	}
+	
+	/**
+	 * Creates a new empty persistent collection, whose copies are created in
+	 * a constant time. See {@link #isPersistent()}.*/
+	public static final SSDCollection persistent() {
+		return persistent(false);
+	}
+	
+	public static final SSDCollection persistentArray() {
+		return persistent(true);
+	}
+	
+	static final SSDCollection persistent(boolean isArray) {
+		return new SSDCollection(null, "", isArray, new SSDPersistentMap(), null, null);
+	}
+	
 	protected final SSDNode get(String name, boolean checkObject, boolean checkCollection,
 				boolean checkFunctionCall) {
 		checkName(name);
@@ -290,6 +328,41 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 		return getDirect(name, false, false, false);
 	}
 	
+	// Gets the node at the given index, the name is created only when needed
+	private final SSDNode node(int index) {
+		return objects instanceof SSDArrayMap  ? ((SSDArrayMap)  objects).get(index) :
+			   objects instanceof SSDFrozenMap ? ((SSDFrozenMap) objects).get(index) :
+												 objects.get(SSDInterner.index(index));
+	}
+	
+	protected final SSDNode getDirect(int index, boolean checkObject, boolean checkCollection,
+			boolean checkFunctionCall) {
+		SSDNode node = node(index);
+		if((node == null)) {
+			// throw an exception, if node is not found
+			throw new NotFoundException("Node " + index + " does not exist!");
+		}
+		if(checkObject
+				&& !(node instanceof SSDObject))
+			throw new TypeMismatchException(
+				"Object " + index + " is not a SSDObject!");
+		if(checkCollection
+				&& !(node instanceof SSDCollection))
+			throw new TypeMismatchException(
+				"Object " + index + " is not a SSDCollection!");
+		if(checkFunctionCall
+				&& !(node instanceof SSDFunctionCall))
+			throw new TypeMismatchException(
+				"Object " + index + " is not a SSDFunctionCall!");
+		return node;
+	}
+	
+	@SuppressWarnings("unchecked")
+	protected final <T> T getDirect_cast(int index, boolean checkObject, boolean checkCollection,
+			boolean checkFunctionCall) {
+		return (T) getDirect(index, checkObject, checkCollection, checkFunctionCall);
+	}
+	
 	public SSDObject getDirectObject(String name) {
 		return getDirect_cast(name, true, false, false);
 	}
@@ -384,22 +457,22 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	public SSDNode get(int index) {
 		checkIfArray();
-		return getDirect(Integer.toString(index), false, false, false);
+		return getDirect(index, false, false, false);
 	}
 	
 	public SSDObject getObject(int index) {
 		checkIfArray();
-		return getDirect_cast(Integer.toString(index), true, false, false);
+		return getDirect_cast(index, true, false, false);
 	}
 	
 	public SSDCollection getCollection(int index) {
 		checkIfArray();
-		return getDirect_cast(Integer.toString(index), false, true, false);
+		return getDirect_cast(index, false, true, false);
 	}
 	
 	public SSDFunctionCall getFunctionCall(int index) {
 		checkIfArray();
-		return getDirect_cast(Integer.toString(index), false, false, true);
+		return getDirect_cast(index, false, false, true);
 	}
 	
 	public boolean getBoolean(int index) {
@@ -445,9 +518,8 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	@SuppressWarnings("unchecked")
 	protected final <T> T getOrDefault(int index, boolean checkObject, boolean checkCollection,
 				boolean checkFunctionCall, T defaultValue) {
-		String  ind = Integer.toString(index);
-		boolean has = hasDirect(ind, false, false, false);
-		return  has ? (T) getDirect(ind, checkObject, checkCollection, checkFunctionCall)
+		boolean has = node(index) != null;
+		return  has ? (T) getDirect(index, checkObject, checkCollection, checkFunctionCall)
 		            : defaultValue;
 	}
 	
@@ -508,35 +580,35 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	}
 	
 	protected final boolean getDirectObjectOrDefault(int index, boolean defaultValue) {
-		return getDirectObjectOrDefault(Integer.toString(index), defaultValue);
+		return getDirectObjectOrDefault(SSDInterner.index(index), defaultValue);
 	}
 	
 	protected final byte getDirectObjectOrDefault(int index, byte defaultValue) {
-		return getDirectObjectOrDefault(Integer.toString(index), defaultValue);
+		return getDirectObjectOrDefault(SSDInterner.index(index), defaultValue);
 	}
 	
 	protected final short getDirectObjectOrDefault(int index, short defaultValue) {
-		return getDirectObjectOrDefault(Integer.toString(index), defaultValue);
+		return getDirectObjectOrDefault(SSDInterner.index(index), defaultValue);
 	}
 	
 	protected final int getDirectObjectOrDefault(int index, int defaultValue) {
-		return getDirectObjectOrDefault(Integer.toString(index), defaultValue);
+		return getDirectObjectOrDefault(SSDInterner.index(index), defaultValue);
 	}
 	
 	protected final long getDirectObjectOrDefault(int index, long defaultValue) {
-		return getDirectObjectOrDefault(Integer.toString(index), defaultValue);
+		return getDirectObjectOrDefault(SSDInterner.index(index), defaultValue);
 	}
 	
 	protected final float getDirectObjectOrDefault(int index, float defaultValue) {
-		return getDirectObjectOrDefault(Integer.toString(index), defaultValue);
+		return getDirectObjectOrDefault(SSDInterner.index(index), defaultValue);
 	}
 	
 	protected final double getDirectObjectOrDefault(int index, double defaultValue) {
-		return getDirectObjectOrDefault(Integer.toString(index), defaultValue);
+		return getDirectObjectOrDefault(SSDInterner.index(index), defaultValue);
 	}
 	
 	protected final String getDirectObjectOrDefault(int index, String defaultValue) {
-		return getDirectObjectOrDefault(Integer.toString(index), defaultValue);
+		return getDirectObjectOrDefault(SSDInterner.index(index), defaultValue);
 	}
 	
 	public SSDNode getDirect(String name, SSDNode defaultValue) {
@@ -769,6 +841,7 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	protected final void remove(String name, boolean checkObject, boolean checkCollection,
 				boolean checkFunctionCall) {
+		checkIfMutable();
 		checkName(name);
 		int nindex = name.indexOf(CHAR_NAME_DELIMITER);
 		int aindex = name.indexOf(CHAR_ANNOTATION_DELIMITER);
@@ -838,16 +911,7 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 					throw new TypeMismatchException(
 						"Object " + name + " is not a SSDFunctionCall!");
 				objects.remove(name);
-				if(isArray) {
-					// Recreate objects to ensure that indexes are correct
-					int counter = 0;
-					Map<String, SSDNode> nodes = new LinkedHashMap<>();
-					for(SSDNode n : objects.values()) {
-						nodes.put(Integer.toString(counter++), n);
-					}
-					objects.clear();
-					objects.putAll(nodes);
-				}
+				if(isArray) renumber();
 			}
 		}
 	}
@@ -855,6 +919,7 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	// used especially for JSON
 	protected final void removeDirect(String name, boolean checkObject, boolean checkCollection,
 			boolean checkFunctionCall) {
+		checkIfMutable();
 		checkName(name);
 		SSDNode node = objects.get(name);
 		if(checkObject
@@ -870,16 +935,28 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 			throw new TypeMismatchException(
 				"Object " + name + " is not a SSDFunctionCall!");
 		objects.remove(name);
-		if(isArray) {
-			// Recreate objects to ensure that indexes are correct
-			int counter = 0;
-			Map<String, SSDNode> nodes = new LinkedHashMap<>();
-			for(SSDNode n : objects.values()) {
-				nodes.put(Integer.toString(counter++), n);
-			}
-			objects.clear();
-			objects.putAll(nodes);
+		if(isArray) renumber();
+	}
+	
+	private final void renumber() {
+		// Concurrent maps renumber the nodes themselves
+		if(!(objects instanceof SSDConcurrentMap))
+			renumber(objects);
+	}
+	
+	static final void renumber(Map<String, SSDNode> objects) {
+		// Nodes stored by their indexes have already been shifted
+		if((objects instanceof SSDArrayMap
+				&& ((SSDArrayMap) objects).isIndexed()))
+			return;
+		// Recreate objects to ensure that indexes are correct
+		int counter = 0;
+		Map<String, SSDNode> nodes = new LinkedHashMap<>();
+		for(SSDNode n : objects.values()) {
+			nodes.put(SSDInterner.index(counter++), n);
 		}
+		objects.clear();
+		objects.putAll(nodes);
 	}
 	
 	public void removeDirect(String name) {
@@ -916,22 +993,22 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	public void remove(int index) {
 		checkIfArray();
-		removeDirect(Integer.toString(index), false, false, false);
+		removeDirect(SSDInterner.index(index), false, false, false);
 	}
 	
 	public void removeObject(int index) {
 		checkIfArray();
-		removeDirect(Integer.toString(index), true, false, false);
+		removeDirect(SSDInterner.index(index), true, false, false);
 	}
 	
 	public void removeCollection(int index) {
 		checkIfArray();
-		removeDirect(Integer.toString(index), false, true, false);
+		removeDirect(SSDInterner.index(index), false, true, false);
 	}
 	
 	public void removeFunctionCall(int index) {
 		checkIfArray();
-		removeDirect(Integer.toString(index), false, false, true);
+		removeDirect(SSDInterner.index(index), false, false, true);
 	}
 	
 	protected final boolean has(String name, boolean checkObject, boolean checkCollection,
@@ -1100,22 +1177,22 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	public boolean has(int index) {
 		checkIfArray();
-		return hasDirect(Integer.toString(index), false, false, false);
+		return node(index) != null;
 	}
 	
 	public boolean hasObject(int index) {
 		checkIfArray();
-		return hasDirect(Integer.toString(index), true, false, false);
+		return node(index) instanceof SSDObject;
 	}
 	
 	public boolean hasCollection(int index) {
 		checkIfArray();
-		return hasDirect(Integer.toString(index), false, true, false);
+		return node(index) instanceof SSDCollection;
 	}
 	
 	public boolean hasFunctionCall(int index) {
 		checkIfArray();
-		return hasDirect(Integer.toString(index), false, false, true);
+		return node(index) instanceof SSDFunctionCall;
 	}
 	
 	public boolean hasNull(int index) {
@@ -1144,6 +1221,7 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	}
 	
 	protected final void set(String name, SSDType type, Object value) {
+		checkIfMutable();
 		checkName(name);
 		int nindex = name.indexOf(CHAR_NAME_DELIMITER);
 		int aindex = name.indexOf(CHAR_ANNOTATION_DELIMITER);
@@ -1178,12 +1256,9 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 					String nname = name.substring(0, aindex);
 					String aname = name.substring(aindex+1, nindex);
 					String kname = name.substring(nindex+1);
-					SSDNode node = get(nname);
 					// When object (collection) does not exist, create one
-					if((node == null)) {
-						node = new SSDObject(this, nname, WORD_NULL);
-						objects.put(nname, node);
-					}
+					SSDNode node = objects.computeIfAbsent(nname,
+						(k) -> new SSDObject(this, k, WORD_NULL));
 					SSDAnnotation ann = node.getAnnotation(aname);
 					// When annotation does not exist, create one
 					if((ann == null)) {
@@ -1198,66 +1273,48 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 				} else {
 					String cname = name.substring(0, nindex);
 					String oname = name.substring(nindex+1);
-					SSDNode node = get(cname);
-					// When collection does not exist, create one
-					if((node == null || !(node instanceof SSDCollection))) {
-						String k = oname;
-						int    i = oname.indexOf(CHAR_NAME_DELIMITER);
-						// Determine if the collection should be array or not
-						if((i) > -1) k = k.substring(0, i);
-						boolean array  = k.matches("\\d+");
-						node = new SSDCollection(this, cname, array);
-						objects.put(cname, node);
-					}
+					String k = oname;
+					int    i = oname.indexOf(CHAR_NAME_DELIMITER);
+					// Determine if the collection should be array or not
+					if((i) > -1) k = k.substring(0, i);
+					boolean array = k.matches("\\d+");
+					// When collection does not exist, create one, other threads
+					// must not replace the collection, once it is created
+					SSDNode node = objects.compute(cname,
+						(c, n) -> n instanceof SSDCollection ? n : newChild(c, array));
 					((SSDCollection) node).set(oname, type, value);
 				}
 			} else if((aindex > -1)) {
 				if((value instanceof SSDAnnotation)) {
 					String nname = name.substring(0, aindex);
 					String aname = name.substring(aindex+1);
-					SSDNode node = get(nname);
 					// When object (collection) does not exist, create one
-					if((node == null)) {
-						node = new SSDObject(this, nname, WORD_NULL);
-						objects.put(nname, node);
-					}
+					SSDNode node = objects.computeIfAbsent(nname,
+						(k) -> new SSDObject(this, k, WORD_NULL));
 					if((node instanceof SSDObject)) {
 						SSDObject 	  n = (SSDObject)     node;
-						SSDAnnotation a = (SSDAnnotation) value;
+						SSDAnnotation a = thawed((SSDAnnotation) value);
 						// Remove any previous annotation
 						if((n.getAnnotation   (aname) != null))
 							n.removeAnnotation(aname);
-						a.name  .set(aname);
-						a.parent.set(this);
+						a.name   = aname;
+						a.parent = this;
 						n.addAnnotation(a);
 					} else if((node instanceof SSDCollection)) {
 						SSDCollection n = (SSDCollection) node;
-						SSDAnnotation a = (SSDAnnotation) value;
+						SSDAnnotation a = thawed((SSDAnnotation) value);
 						// Remove any previous annotation
 						if((n.getAnnotation   (aname) != null))
 							n.removeAnnotation(aname);
-						a.name  .set(aname);
-						a.parent.set(this);
+						a.name   = aname;
+						a.parent = this;
 						n.addAnnotation(a);
 					}
 				} else {
 					throw new TypeMismatchException("Value is not a SSDAnnotation!");
 				}
 			} else {
-				SSDNode node = null;
-				if((value instanceof SSDCollection)) {
-					SSDCollection n = (SSDCollection) value;
-					n.name  .set(name);
-					n.parent.set(this);
-					node = n;
-				} else if(value instanceof SSDObject) {
-					SSDObject n = (SSDObject) value;
-					n.name  .set(name);
-					n.parent.set(this);
-					node = n;
-				} else if(value instanceof String) {
-					node = type.createObject(this, name, (String) value);
-				}
+				SSDNode node = newNode(name, type, value);
 				if((node != null)) objects.put(name, node);
 			}
 		}
@@ -1265,22 +1322,60 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	// used especially for JSON
 	protected final void setDirect(String name, SSDType type, Object value) {
+		checkIfMutable();
 		checkName(name);
+		SSDNode node = newNode(name, type, value);
+		if((node != null)) objects.put(name, node);
+	}
+	
+	// Creates a node of this collection of the given value
+	private final SSDNode newNode(String name, SSDType type, Object value) {
 		SSDNode node = null;
 		if((value instanceof SSDCollection)) {
-			SSDCollection n = (SSDCollection) value;
-			n.name  .set(name);
-			n.parent.set(this);
+			SSDCollection n = adopted((SSDCollection) value);
+			n.name   = name;
+			n.parent = this;
 			node = n;
 		} else if(value instanceof SSDObject) {
-			SSDObject n = (SSDObject) value;
-			n.name  .set(name);
-			n.parent.set(this);
+			SSDObject n = thawed((SSDObject) value);
+			n.name   = name;
+			n.parent = this;
 			node = n;
 		} else if(value instanceof String) {
 			node = type.createObject(this, name, (String) value);
 		}
-		if((node != null)) objects.put(name, node);
+		return node;
+	}
+	
+	// Collections of a concurrent or a persistent collection must be
+	// of the same kind, persistent collections cannot be shared
+	private final SSDCollection adopted(SSDCollection node) {
+		if((objects instanceof SSDPersistentMap))
+			return ((SSDPersistentMap) objects).adopt(node);
+		boolean concurrent = isConcurrent();
+		if((node.isFrozen() || (concurrent && !node.isConcurrent())))
+			return node.copy(null, false, concurrent ? SSDConcurrentMap::new : SSDCollection::newMap);
+		return node;
+	}
+	
+	// Creates an empty collection of this collection
+	private final SSDCollection newChild(String name, boolean isArray) {
+		Map<String, SSDNode> map = objects instanceof SSDConcurrentMap ? new SSDConcurrentMap(isArray) :
+								   objects instanceof SSDPersistentMap ? new SSDPersistentMap() :
+																		 newMap(isArray);
+		return new SSDCollection(this, name, isArray, map, null, null);
+	}
+	
+	// Adds a node of the given value at the next index of this array
+	private final void addNext(SSDType type, Object value) {
+		checkIfArray();
+		if((objects instanceof SSDConcurrentMap)) {
+			checkIfMutable();
+			// The index must not be taken by another thread, until the node is put
+			((SSDConcurrentMap) objects).putNext((name) -> newNode(name, type, value));
+		} else {
+			setDirect(SSDInterner.index(nextIndex()), type, value);
+		}
 	}
 	
 	public void setDirectNull(String name) {
@@ -1381,62 +1476,62 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	public void setNull(int index) {
 		checkIfArray();
-		setDirect(Integer.toString(index), SSDType.NULL, WORD_NULL);
+		setDirect(SSDInterner.index(index), SSDType.NULL, WORD_NULL);
 	}
 	
 	public void set(int index, boolean value) {
 		checkIfArray();
-		setDirect(Integer.toString(index), SSDType.BOOLEAN, Boolean.toString(value));
+		setDirect(SSDInterner.index(index), SSDType.BOOLEAN, Boolean.toString(value));
 	}
 	
 	public void set(int index, byte value) {
 		checkIfArray();
-		setDirect(Integer.toString(index), SSDType.INTEGER, Byte.toString(value));
+		setDirect(SSDInterner.index(index), SSDType.INTEGER, Byte.toString(value));
 	}
 	
 	public void set(int index, short value) {
 		checkIfArray();
-		setDirect(Integer.toString(index), SSDType.INTEGER, Short.toString(value));
+		setDirect(SSDInterner.index(index), SSDType.INTEGER, Short.toString(value));
 	}
 	
 	public void set(int index, int value) {
 		checkIfArray();
-		setDirect(Integer.toString(index), SSDType.INTEGER, Integer.toString(value));
+		setDirect(SSDInterner.index(index), SSDType.INTEGER, Integer.toString(value));
 	}
 	
 	public void set(int index, long value) {
 		checkIfArray();
-		setDirect(Integer.toString(index), SSDType.INTEGER, Long.toString(value));
+		setDirect(SSDInterner.index(index), SSDType.INTEGER, Long.toString(value));
 	}
 	
 	public void set(int index, float value) {
 		checkIfArray();
-		setDirect(Integer.toString(index), SSDType.DECIMAL, Float.toString(value));
+		setDirect(SSDInterner.index(index), SSDType.DECIMAL, Float.toString(value));
 	}
 	
 	public void set(int index, double value) {
 		checkIfArray();
-		setDirect(Integer.toString(index), SSDType.DECIMAL, Double.toString(value));
+		setDirect(SSDInterner.index(index), SSDType.DECIMAL, Double.toString(value));
 	}
 	
 	public void set(int index, String value) {
 		checkIfArray();
-		setDirect(Integer.toString(index), SSDType.STRING, value);
+		setDirect(SSDInterner.index(index), SSDType.STRING, value);
 	}
 	
 	public void set(int index, SSDObject object) {
 		checkIfArray();
-		setDirect(Integer.toString(index), SSDType.UNKNOWN, object);
+		setDirect(SSDInterner.index(index), SSDType.UNKNOWN, object);
 	}
 	
 	public void set(int index, SSDCollection collection) {
 		checkIfArray();
-		setDirect(Integer.toString(index), SSDType.UNKNOWN, collection);
+		setDirect(SSDInterner.index(index), SSDType.UNKNOWN, collection);
 	}
 	
 	public void set(int index, SSDFunctionCall funcCall) {
 		checkIfArray();
-		setDirect(Integer.toString(index), SSDType.UNKNOWN, funcCall);
+		setDirect(SSDInterner.index(index), SSDType.UNKNOWN, funcCall);
 	}
 	
 	public void addNull(String name) {
@@ -1476,75 +1571,51 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	}
 	
 	public void addNull() {
-		checkIfArray();
-		setDirect(Integer.toString(nextIndex()), SSDType.NULL, WORD_NULL);
+		addNext(SSDType.NULL, WORD_NULL);
 	}
 	
 	public void add(boolean value) {
-		checkIfArray();
-		setDirect(Integer.toString(nextIndex()), SSDType.BOOLEAN, Boolean.toString(value));
+		addNext(SSDType.BOOLEAN, Boolean.toString(value));
 	}
 	
 	public void add(byte value) {
-		checkIfArray();
-		setDirect(Integer.toString(nextIndex()), SSDType.INTEGER, Byte.toString(value));
+		addNext(SSDType.INTEGER, Byte.toString(value));
 	}
 	
 	public void add(short value) {
-		checkIfArray();
-		setDirect(Integer.toString(nextIndex()), SSDType.INTEGER, Short.toString(value));
+		addNext(SSDType.INTEGER, Short.toString(value));
 	}
 	
 	public void add(int value) {
-		checkIfArray();
-		setDirect(Integer.toString(nextIndex()), SSDType.INTEGER, Integer.toString(value));
+		addNext(SSDType.INTEGER, Integer.toString(value));
 	}
 	
 	public void add(long value) {
-		checkIfArray();
-		setDirect(Integer.toString(nextIndex()), SSDType.INTEGER, Long.toString(value));
+		addNext(SSDType.INTEGER, Long.toString(value));
 	}
 	
 	public void add(float value) {
-		checkIfArray();
-		setDirect(Integer.toString(nextIndex()), SSDType.DECIMAL, Float.toString(value));
+		addNext(SSDType.DECIMAL, Float.toString(value));
 	}
 	
 	public void add(double value) {
-		checkIfArray();
-		setDirect(Integer.toString(nextIndex()), SSDType.DECIMAL, Double.toString(value));
+		addNext(SSDType.DECIMAL, Double.toString(value));
 	}
 	
 	public void add(String value) {
-		checkIfArray();
-		setDirect(Integer.toString(nextIndex()), SSDType.STRING, value);
+		addNext(SSDType.STRING, value);
 	}
 	
 	public void add(SSDObject object) {
-		checkIfArray();
-		setDirect(isArray ? Integer.toString(nextIndex())
-		                  : object != null
-		                  		? object.getName()
-		                  		: Integer.toString(nextIndex()),
-		    SSDType.UNKNOWN, object);
+		addNext(SSDType.UNKNOWN, object);
 	}
 	
 	public void add(SSDCollection collection) {
-		checkIfArray();
-		setDirect(isArray ? Integer.toString(nextIndex())
-		                  : collection != null
-		                  		? collection.getName()
-		                  		: Integer.toString(nextIndex()),
-		    SSDType.UNKNOWN, collection);
+		addNext(SSDType.UNKNOWN, collection);
 	}
 	
 	public void add(SSDFunctionCall funcCall) {
-		checkIfArray();
-		setDirect(isArray ? Integer.toString(nextIndex())
-		                  : funcCall != null
-		                  		? funcCall.getName()
-		                  		: Integer.toString(nextIndex()),
-		    SSDType.UNKNOWN, funcCall);
+		addNext(SSDType.UNKNOWN, funcCall);
 	}
 	
 	public int length() {
@@ -1569,12 +1640,12 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	@Override
 	public SSDNode getParent() {
-		return parent.get();
+		return parent;
 	}
 	
 	@Override
 	public String getName() {
-		return name.get();
+		return name;
 	}
 	
 	@Override
@@ -1689,8 +1760,9 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	@Override
 	public void addAnnotation(SSDAnnotation annotation) {
+		checkIfMutable();
 		// Call the internal method
-		addAnnotation0(annotation);
+		addAnnotation0(annotation != null ? thawed(annotation) : null);
 	}
 	
 	@Override
@@ -1700,7 +1772,8 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	@Override
 	public void removeAnnotation(String name) {
-		for(Iterator<SSDAnnotation> i = annotations.iterator();
+		checkIfMutable();
+		for(Iterator<SSDAnnotation> i = annotations().iterator();
 				i.hasNext();) {
 			SSDAnnotation ann = i.next();
 			if(ann.getName()	.equals(name) ||
@@ -1711,12 +1784,13 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	@Override
 	public void removeAnnotation(SSDAnnotation annotation) {
+		checkIfMutable();
 		// Just remove the annotation
-		annotations.remove(annotation);
+		annotations().remove(annotation);
 	}
 	
 	void removeAnnotationEq(SSDAnnotation annotation) {
-		for(SSDAnnotation ann : annotations) {
+		for(SSDAnnotation ann : annotations()) {
 			if((ann.equals(annotation))) {
 				removeAnnotation(ann);
 				return; // Should be only one
@@ -1726,7 +1800,7 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	@Override
 	public SSDAnnotation getAnnotation(String name) {
-		for(SSDAnnotation ann : annotations)
+		for(SSDAnnotation ann : annotations())
 			if(ann.getName().equals(name))
 				return ann;
 		return null;
@@ -1734,13 +1808,14 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	@Override
 	public SSDAnnotation[] getAnnotations() {
-		return annotations.toArray(new SSDAnnotation[annotations.size()]);
+		Set<SSDAnnotation> anns = annotations();
+		return anns.toArray(new SSDAnnotation[anns.size()]);
 	}
 	
 	@Override
 	public SSDAnnotation[] getAnnotations(String name) {
 		List<SSDAnnotation> list = new ArrayList<>();
-		for(SSDAnnotation ann : annotations)
+		for(SSDAnnotation ann : annotations())
 			if(ann.getName().equals(name))
 				list.add(ann);
 		return list.toArray(new SSDAnnotation[list.size()]);
@@ -1748,23 +1823,30 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 	
 	@Override
 	public void addComment(SSDComment comment) {
+		checkIfMutable();
+		if((comments == null))
+			comments = new LinkedHashSet<>();
 		comments.add(comment);
 	}
 	
 	@Override
 	public void removeComment(SSDComment comment) {
-		comments.remove(comment);
+		checkIfMutable();
+		comments().remove(comment);
 	}
 	
 	@Override
 	public SSDComment[] getComments() {
-		return comments.toArray(new SSDComment[comments.size()]);
+		Set<SSDComment> cmts = comments();
+		return cmts.toArray(new SSDComment[cmts.size()]);
 	}
 	
 	@Override
 	public SSDCollection copy() {
+		if((objects instanceof SSDPersistentMap))
+			return share(getParent(), ((SSDPersistentMap) objects).copy());
 		// Copy properly all the collection's objects
-		Map<String, SSDNode> copyObj = new LinkedHashMap<>();
+		Map<String, SSDNode> copyObj = newMap(isArray);
 		for(Entry<String, SSDNode> e : objects.entrySet()) {
 			String  name 	 = e.getKey();
 			SSDNode node 	 = e.getValue();
@@ -1773,17 +1855,189 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 				copyObj.put(name, copyNode);
 		}
 		// Copy properly all the annotations
-		Set<SSDAnnotation> copyAnn = new LinkedHashSet<>();
-		for(SSDAnnotation a : annotations)
-			// Use the annotation copy function
-			copyAnn.add(a.copy());
+		Set<SSDAnnotation> copyAnn = null;
+		if((annotations != null)) {
+			copyAnn = new LinkedHashSet<>();
+			for(SSDAnnotation a : annotations)
+				// Use the annotation copy function
+				copyAnn.add(a.copy());
+		}
 		// Copy properly all the comments
-		Set<SSDComment> copyCmt = new LinkedHashSet<>();
-		for(SSDComment c : comments)
-			copyCmt.add(c.copy());
+		Set<SSDComment> copyCmt = null;
+		if((comments != null)) {
+			copyCmt = new LinkedHashSet<>();
+			for(SSDComment c : comments)
+				copyCmt.add(c.copy());
+		}
 		return new SSDCollection(getParent(), getName(), isArray, copyObj, copyAnn, copyCmt);
 	}
 	
+	/**
+	 * Creates a deeply immutable copy of this collection, or returns this
+	 * collection, if it is already frozen. All the nodes, including annotations
+	 * and comments, are copied, the nodes of arrays and objects are stored in
+	 * arrays that are only read. Any modification of the frozen collection, or of
+	 * any of its nodes, throws an {@linkplain UnsupportedOperationException}.<br><br>
+	 * A frozen collection can be read by any number of threads at once without
+	 * any synchronization, once it is safely published to them, e.g. through
+	 * a final or volatile field, or a concurrent collection. The frozen copy has
+	 * no parent.*/
+	public SSDCollection freeze() {
+		return isFrozen() ? this : copy(null, true);
+	}
+	
+	/**
+	 * Creates a deep mutable copy of this collection, including all the
+	 * annotations and comments. The copy has no parent.*/
+	public SSDCollection thaw() {
+		return copy(null, false);
+	}
+	
+	public boolean isFrozen() {
+		return objects instanceof SSDFrozenMap;
+	}
+	
+	/**
+	 * Creates a deep concurrent copy of this collection, including all the
+	 * annotations and comments. The copy has no parent.*/
+	public SSDCollection toConcurrent() {
+		return copy(null, false, SSDConcurrentMap::new);
+	}
+	
+	/**
+	 * Whether nodes of this collection can be read and modified by any number of
+	 * threads at once. Each collection has a lock of its own, therefore threads
+	 * that modify different collections do not wait for each other. Collections
+	 * that are created by this collection, e.g. when a name with a dot is set,
+	 * and collections that are set to it, are concurrent as well, the latter
+	 * are copied, if they are not.<br><br>
+	 * Single operations are atomic, including adding a node at the next index
+	 * of an array and creating the collections of a name with a dot. The nodes
+	 * are iterated over a snapshot, that cannot be modified. Annotations and
+	 * comments are not guarded, they should be modified by a single thread.*/
+	public boolean isConcurrent() {
+		return objects instanceof SSDConcurrentMap;
+	}
+	
+	/**
+	 * Creates a deep persistent copy of this collection, including all the
+	 * annotations and comments. The copy has no parent.*/
+	public SSDCollection toPersistent() {
+		return copy(null, false, (a) -> new SSDPersistentMap());
+	}
+	
+	/**
+	 * Whether copies of this collection are created in a constant time. Nodes of
+	 * a persistent collection are stored in a trie, that is shared by the copies,
+	 * and a change of a copy creates only the nodes on the path to the changed
+	 * node. Nested collections are copied the same way, when they are got from
+	 * a copy for the first time, and all of them are persistent as well. Objects
+	 * are copied, when they are got for the first time, too.<br><br>
+	 * Nodes got from a collection before it has been copied should be got again,
+	 * since they are shared by the copies. Any number of threads can copy and
+	 * read a persistent collection at once, while it is not modified.*/
+	public boolean isPersistent() {
+		return objects instanceof SSDPersistentMap;
+	}
+	
+	// Frozen nodes cannot be moved to another collection, their copies are
+	static final <T extends SSDCollection> T thawed(T node) {
+		@SuppressWarnings("unchecked")
+		T copy = node.isFrozen() ? (T) node.thaw() : node;
+		return copy;
+	}
+	
+	static final <T extends SSDObject> T thawed(T node) {
+		@SuppressWarnings("unchecked")
+		T copy = node.isFrozen() ? (T) node.copy(null, false) : node;
+		return copy;
+	}
+	
+	/**
+	 * Creates a deep copy of this collection that has the given parent. All the
+	 * nodes are copied with their annotations and comments and their parents
+	 * are the copies of their original parents.*/
+	SSDCollection copy(SSDNode parent, boolean frozen) {
+		return copy(parent, frozen, SSDCollection::newMap);
+	}
+	
+	// Maps of mutable collections are created by the given function, whose
+	// argument is whether the collection is an array
+	SSDCollection copy(SSDNode parent, boolean frozen,
+			Function<Boolean, Map<String, SSDNode>> maps) {
+		int size = objects.size(), i = 0;
+		String[]  names = new String [size];
+		SSDNode[] nodes = new SSDNode[size];
+		for(Entry<String, SSDNode> e : objects.entrySet()) {
+			names[i]   = e.getKey();
+			nodes[i++] = copy(e.getValue(), null, frozen, maps);
+		}
+		Map<String, SSDNode> map;
+		if((frozen)) {
+			map = new SSDFrozenMap(names, nodes);
+		} else {
+			map = maps.apply(isArray);
+			for(i = 0; i < size; ++i)
+				map.put(names[i], nodes[i]);
+		}
+		SSDCollection copy = newCopy(parent, map);
+		for(SSDNode node : nodes)
+			setParent(node, copy);
+		copy.annotations = copyAnnotations(annotations, copy, frozen);
+		copy.comments 	 = copyComments(comments, frozen);
+		return copy;
+	}
+	
+	// Persistent collections share all the nodes of the given copy of their map,
+	// the annotations are copied including their comments
+	final SSDCollection share(SSDNode parent, SSDPersistentMap map) {
+		SSDCollection copy = newCopy(parent, map);
+		copy.annotations = copyAnnotations(annotations, copy, false);
+		copy.comments 	 = copyComments(comments, false);
+		return copy;
+	}
+	
+	// Creates an empty copy of this collection with the given map of nodes
+	SSDCollection newCopy(SSDNode parent, Map<String, SSDNode> objects) {
+		return new SSDCollection(parent, name, isArray, objects, null, null);
+	}
+	
+	static final SSDNode copy(SSDNode node, SSDNode parent, boolean frozen) {
+		return copy(node, parent, frozen, SSDCollection::newMap);
+	}
+	
+	static final SSDNode copy(SSDNode node, SSDNode parent, boolean frozen,
+			Function<Boolean, Map<String, SSDNode>> maps) {
+		return node instanceof SSDCollection
+					? ((SSDCollection) node).copy(parent, frozen, maps)
+					: ((SSDObject) 	   node).copy(parent, frozen);
+	}
+	
+	static final void setParent(SSDNode node, SSDNode parent) {
+		if((node instanceof SSDCollection))
+			((SSDCollection) node).parent = parent;
+		else
+			((SSDObject) node).parent = parent;
+	}
+	
+	static final Set<SSDAnnotation> copyAnnotations(Set<SSDAnnotation> annotations, SSDNode owner,
+			boolean frozen) {
+		if((annotations == null || annotations.isEmpty()))
+			return null;
+		Set<SSDAnnotation> copy = new LinkedHashSet<>();
+		for(SSDAnnotation a : annotations)
+			copy.add((SSDAnnotation) a.copy(owner, frozen));
+		return frozen ? Collections.unmodifiableSet(copy) : copy;
+	}
+	
+	// Comments cannot be changed, therefore they are shared
+	static final Set<SSDComment> copyComments(Set<SSDComment> comments, boolean frozen) {
+		if((comments == null || comments.isEmpty()))
+			return null;
+		Set<SSDComment> copy = new LinkedHashSet<>(comments);
+		return frozen ? Collections.unmodifiableSet(copy) : copy;
+	}
+	
 	@Override
 	public boolean equals(Object obj) {
 		if((obj == null
@@ -1792,7 +2046,7 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 		SSDCollection coll = (SSDCollection) obj;
 		if((coll.isArray != isArray))
 			return false;
-		if(!coll.getName().equals(name.get()))
+		if(!coll.getName().equals(name))
 			return false;
 		Map<String, SSDNode> objs = coll.objects;
 		if((objs.size() != objects.size()))
@@ -1839,9 +2093,9 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 		String		  ndtStr = tabStr + CHAR_TAB;
 		StringBuilder buffer = new StringBuilder();
 		// Append all annotations
-		if((info && !annotations.isEmpty() && !json)) {
+		if((info && annotations != null && !annotations.isEmpty() && !json)) {
 			boolean annf = true;
-			for(SSDAnnotation ann : annotations) {
+			for(SSDAnnotation ann : annotations()) {
 				if(annf) 	  annf = false; else
 				if(!compress) buffer.append(CHAR_NEWLINE);
 				buffer.append(json ? ann.toJSON(depth, compress, invoke)
@@ -1853,7 +2107,7 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 			}
 		}
 		// Append all comments
-		if((comments && !this.comments.isEmpty() && !json
+		if((comments && this.comments != null && !this.comments.isEmpty() && !json
 				&& getName() == null)) { // only the parent object
 			boolean cmtf = true;
 			for(SSDComment cmt : this.comments) {
@@ -1987,6 +2241,29 @@ public class SSDCollection implements SSDNode, Iterable<SSDNode> {
 		return toString(depth, compress, true, invoke, false, false);
 	}
 	
+	public CompletableFuture<Void> writeAsync(Path path) {
+		if((path == null)) {
+			throw new IllegalArgumentException("Path cannot be null");
+		}
+		// The file is written by the default thread pool of asynchronous channels
+		return SSDAsync.write(path, SSDF.CHARSET.encode(toString()), null);
+	}
+	
+	/**
+	 * Writes this collection to the given file asynchronously, using an
+	 * asynchronous file channel whose operations are run on the given executor.
+	 * The content is created by the calling thread, therefore the collection
+	 * can be modified once this method returns.*/
+	public CompletableFuture<Void> writeAsync(Path path, ExecutorService executor) {
+		if((path == null)) {
+			throw new IllegalArgumentException("Path cannot be null");
+		}
+		if((executor == null)) {
+			throw new IllegalArgumentException("Executor cannot be null");
+		}
+		return SSDAsync.write(path, SSDF.CHARSET.encode(toString()), executor);
+	}
+	
 	final Iterator<SSDNode> valuesIterator() {
 		return objects.values().iterator();
 	}
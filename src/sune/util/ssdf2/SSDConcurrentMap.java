@@ -0,0 +1,196 @@
+package sune.util.ssdf2;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Map of nodes of a concurrent collection. The nodes are stored in a regular
+ * map of a collection, that is guarded by a lock of its own, so that nodes
+ * of different collections can be put and removed at once. Any number of
+ * threads can read the map at once, while there is no thread that writes to it.
+ * <br><br>
+ * Operations that both read and write the map, e.g. getting or creating
+ * a node, or putting a node at the next index of an array, are atomic. The
+ * nodes are iterated over a snapshot of the map, that cannot be modified.*/
+final class SSDConcurrentMap extends AbstractMap<String, SSDNode> {
+	
+	private final Map<String, SSDNode> map;
+	private final boolean 			   isArray;
+	private final StampedLock 		   lock = new StampedLock();
+	
+	SSDConcurrentMap(boolean isArray) {
+		this.map 	 = SSDCollection.newMap(isArray);
+		this.isArray = isArray;
+	}
+	
+	@Override
+	public int size() {
+		// The size is just a field of the map, it can be read optimistically
+		long stamp = lock.tryOptimisticRead();
+		int  size  = map.size();
+		if(!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				size = map.size();
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return size;
+	}
+	
+	@Override
+	public boolean containsKey(Object key) {
+		long stamp = lock.readLock();
+		try {
+			return map.containsKey(key);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public SSDNode get(Object key) {
+		long stamp = lock.readLock();
+		try {
+			return map.get(key);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public SSDNode put(String key, SSDNode value) {
+		long stamp = lock.writeLock();
+		try {
+			return map.put(key, value);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public SSDNode putIfAbsent(String key, SSDNode value) {
+		long stamp = lock.writeLock();
+		try {
+			return map.putIfAbsent(key, value);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public SSDNode computeIfAbsent(String key,
+			Function<? super String, ? extends SSDNode> function) {
+		long stamp = lock.writeLock();
+		try {
+			return map.computeIfAbsent(key, function);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public SSDNode compute(String key,
+			BiFunction<? super String, ? super SSDNode, ? extends SSDNode> function) {
+		long stamp = lock.writeLock();
+		try {
+			return map.compute(key, function);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Puts the node created by the given function at the next index, i.e. at
+	 * the current size of the map. No other node can be put in the meantime.*/
+	void putNext(Function<String, SSDNode> function) {
+		long stamp = lock.writeLock();
+		try {
+			String  name = SSDInterner.index(map.size());
+			SSDNode node = function.apply(name);
+			if((node != null))
+				map.put(name, node);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Removes the node of the given name, the following nodes of an array are
+	 * renumbered before any other thread can access the map.*/
+	@Override
+	public SSDNode remove(Object key) {
+		long stamp = lock.writeLock();
+		try {
+			SSDNode prev = map.remove(key);
+			if((isArray && prev != null))
+				SSDCollection.renumber(map);
+			return prev;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public void clear() {
+		long stamp = lock.writeLock();
+		try {
+			map.clear();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	@Override
+	public Collection<SSDNode> values() {
+		long stamp = lock.readLock();
+		try {
+			return Collections.unmodifiableList(new ArrayList<>(map.values()));
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	@Override
+	public Set<Entry<String, SSDNode>> entrySet() {
+		long stamp = lock.readLock();
+		try {
+			List<Entry<String, SSDNode>> entries = new ArrayList<>(map.size());
+			for(Entry<String, SSDNode> e : map.entrySet())
+				entries.add(new SimpleImmutableEntry<>(e));
+			return new Snapshot<>(entries);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	private static final class Snapshot<T> extends AbstractSet<T> {
+		
+		private final List<T> list;
+		
+		Snapshot(List<T> list) {
+			this.list = list;
+		}
+		
+		@Override
+		public Iterator<T> iterator() {
+			return Collections.unmodifiableList(list).iterator();
+		}
+		
+		@Override
+		public int size() {
+			return list.size();
+		}
+	}
+}
\ No newline at end of file
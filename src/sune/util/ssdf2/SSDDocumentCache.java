@@ -0,0 +1,227 @@
+package sune.util.ssdf2;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of read documents, so that the same unchanged files do not have to be
+ * read again. Files are identified by their canonical paths and are read again
+ * when their modification time or size change. Resources are identified by
+ * their URLs. The least recently used documents are evicted once the maximum
+ * number of documents is exceeded.<br><br>
+ * The cached collections are frozen, see {@linkplain SSDCollection#freeze()}.
+ * The frozen methods return the cached collections themselves, a read from
+ * the cache is then only a lookup and the collection can be shared by any
+ * number of threads. The other methods return a mutable copy of the cached
+ * collection, including all the annotations and comments, created using
+ * {@linkplain SSDCollection#thaw()}, therefore it can be freely modified.
+ * This class is thread-safe.*/
+public final class SSDDocumentCache {
+	
+	private final int maxSize;
+	private final SSDParseOptions options;
+	private final Map<Object, Document> documents;
+	
+	public SSDDocumentCache(int maxSize) {
+		this(maxSize, SSDParseOptions.DEFAULT);
+	}
+	
+	public SSDDocumentCache(int maxSize, SSDParseOptions options) {
+		if((maxSize <= 0)) {
+			throw new IllegalArgumentException("Maximum size must be > 0");
+		}
+		if((options == null)) {
+			throw new IllegalArgumentException("Options cannot be null");
+		}
+		this.maxSize   = maxSize;
+		this.options   = options;
+		// Access-ordered map, the eldest entry is the least recently used one
+		this.documents = new LinkedHashMap<Object, Document>(16, 0.75f, true) {
+			
+			private static final long serialVersionUID = 2839162417493402716L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, Document> eldest) {
+				return size() > SSDDocumentCache.this.maxSize;
+			}
+		};
+	}
+	
+	public SSDCollection read(File file) {
+		if((file == null)) {
+			throw new IllegalArgumentException("File cannot be null");
+		}
+		return read(file.toPath());
+	}
+	
+	/**
+	 * Reads the given file, or gets it from the cache, if it has not been
+	 * changed since it was last read. Returns a mutable copy.*/
+	public SSDCollection read(Path path) {
+		return document(path).thaw();
+	}
+	
+	public SSDCollection readFrozen(File file) {
+		if((file == null)) {
+			throw new IllegalArgumentException("File cannot be null");
+		}
+		return readFrozen(file.toPath());
+	}
+	
+	/**
+	 * Reads the given file, or gets it from the cache, if it has not been
+	 * changed since it was last read. Returns the cached frozen collection.*/
+	public SSDCollection readFrozen(Path path) {
+		return document(path).collection;
+	}
+	
+	private final Document document(Path path) {
+		if((path == null)) {
+			throw new IllegalArgumentException("Path cannot be null");
+		}
+		Path real;
+		BasicFileAttributes attrs;
+		try {
+			real  = path.toRealPath();
+			attrs = Files.readAttributes(real, BasicFileAttributes.class);
+		} catch(IOException ex) {
+			throw new IllegalStateException("An error has occurred while trying to read the given file");
+		}
+		long modified = attrs.lastModifiedTime().toMillis();
+		long size	  = attrs.size();
+		Document document = get(real);
+		if((document == null
+				|| document.modified != modified
+				|| document.size 	 != size)) {
+			// The file is read without holding the lock
+			document = new Document(SSDF.readFrozen(real, options), modified, size);
+			put(real, document);
+		}
+		return document;
+	}
+	
+	/**
+	 * Reads the given resource, or gets it from the cache, if it has already
+	 * been read. Returns a mutable copy.*/
+	public SSDCollection readResource(String path) {
+		return resource(path).thaw();
+	}
+	
+	/**
+	 * Reads the given resource, or gets it from the cache, if it has already
+	 * been read. Returns the cached frozen collection.*/
+	public SSDCollection readFrozenResource(String path) {
+		return resource(path).collection;
+	}
+	
+	private final Document resource(String path) {
+		if((path == null || path.isEmpty())) {
+			throw new IllegalArgumentException("Path cannot be null or empty");
+		}
+		URL url = SSDF.class.getResource(path);
+		if((url == null)) {
+			throw new IllegalArgumentException("Resource does not exist");
+		}
+		// Do not use the URL itself as the key, since its equals method may
+		// resolve the host
+		String key = url.toExternalForm();
+		Document document = get(key);
+		if((document == null)) {
+			try(InputStream stream = url.openStream()) {
+				document = new Document(SSDF.readFrozen(stream, options), -1L, -1L);
+			} catch(IOException ex) {
+				throw new IllegalStateException("An error has occurred while trying to read the given resource");
+			}
+			put(key, document);
+		}
+		return document;
+	}
+	
+	/**
+	 * Removes the given file from the cache, it will be read again the next
+	 * time it is requested.*/
+	public void invalidate(Path path) {
+		if((path == null)) {
+			throw new IllegalArgumentException("Path cannot be null");
+		}
+		try {
+			remove(path.toRealPath());
+		} catch(IOException ex) {
+			// The file does not exist anymore, remove it by its path
+			remove(path.toAbsolutePath().normalize());
+		}
+	}
+	
+	public void invalidateResource(String path) {
+		if((path == null || path.isEmpty())) {
+			throw new IllegalArgumentException("Path cannot be null or empty");
+		}
+		URL url = SSDF.class.getResource(path);
+		if((url != null))
+			remove(url.toExternalForm());
+	}
+	
+	public void clear() {
+		synchronized(documents) {
+			documents.clear();
+		}
+	}
+	
+	public int size() {
+		synchronized(documents) {
+			return documents.size();
+		}
+	}
+	
+	public int getMaxSize() {
+		return maxSize;
+	}
+	
+	public SSDParseOptions getOptions() {
+		return options;
+	}
+	
+	private final Document get(Object key) {
+		synchronized(documents) {
+			return documents.get(key);
+		}
+	}
+	
+	private final void put(Object key, Document document) {
+		synchronized(documents) {
+			documents.put(key, document);
+		}
+	}
+	
+	private final void remove(Object key) {
+		synchronized(documents) {
+			documents.remove(key);
+		}
+	}
+	
+	private static final class Document {
+		
+		final SSDCollection collection;
+		// Modification time and size of the file, when it was read
+		final long modified;
+		final long size;
+		
+		Document(SSDCollection collection, long modified, long size) {
+			this.collection = collection;
+			this.modified   = modified;
+			this.size 		= size;
+		}
+		
+		SSDCollection thaw() {
+			// Nothing is read from an empty content
+			return collection != null ? collection.thaw() : null;
+		}
+	}
+}
\ No newline at end of file
@@ -6,12 +6,29 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 public final class SSDF {
 	
@@ -161,454 +178,6 @@ public final class SSDF {
 		return nchars;
 	}
 	
-	static final SSDCollection readObjects(char[] chars, int off, int len) {
-		if((chars == null))
-			throw new IllegalArgumentException("Cannot read null array of characters");
-		// Do some checking before the actual reading
-		int length = chars.length;
-		if((length == 0 || off < 0 || off >= length || len < 0 || off+len > length))
-			return null;
-		// In double quotes
-		boolean indq 	   = false;
-		// In single quotes
-		boolean insq 	   = false;
-		// Temporary objects for names and values
-		StringBuilder temp = new StringBuilder();
-		String tempName    = null;
-		String lastName	   = null;
-		String lobjName	   = null;
-		// Counter for array objects
-		int counter 	   = 0;
-		// Determining if a character can be added
-		boolean cadd 	   = false;
-		// Determining if a character is escaped
-		boolean escaped	   = false;
-		// Current escape strength
-		int	escape		   = 0;
-		// Whether the annotation sign was encountered
-		boolean bann 	   = false;
-		// Whether the value should be defined now
-		boolean isval 	   = false;
-		// Annotations for current object/collection
-		Deque<SSDAnnotation> anns = new ArrayDeque<>();
-		// Holds all parents, the first element represents the current parent
-		// which will be later saved into the 'parent' variable
-		Deque<SSDNode> parents = new ArrayDeque<>();
-		// Objects for handling information about parent
-		SSDNode parent 	   = null;
-		boolean array 	   = false;
-		boolean function   = false;
-		boolean isfsimple  = false;
-		int		ctfsimple  = 0;
-		Deque<Boolean> annsval = new ArrayDeque<>();
-		Deque<Integer> annscnt = new ArrayDeque<>();
-		annsval.push(false);
-		annscnt.push(0);
-		// Whether the comment first character was encountered
-		boolean cmtfirst   = false;
-		boolean cmtcontent = false;
-		boolean cmtoneline = false;
-		Deque<SSDComment> comments = new ArrayDeque<>();
-		Deque<SSDAnnotation> annsh = new ArrayDeque<>();
-		// The last content of item when entering a comment
-		String lastContent = null;
-		// Read the characters and construct the objects
-		for(int i = off, l = off + len, c; i < l; ++i) {
-			cadd = true;
-			c 	 = chars[i];
-			// Comments logic
-			if((cmtcontent)) {
-				// One line comment
-				if((cmtoneline)) {
-					if((c == CHAR_NEWLINE)) {
-						cmtcontent = false;
-						cmtfirst   = false;
-						// Add comment to the collection
-						String content = temp.substring(0, temp.length()-1)
-											 .toString();
-						comments.push(new SSDComment(content, cmtoneline));
-						temp.setLength(0);
-						if((lastContent != null
-								&& !lastContent.isEmpty()))
-							temp.append(lastContent);
-						cmtoneline  = false;
-						cadd 	    = false;
-						lastContent = null;
-					}
-				}
-				// Multiple line comment
-				else {
-					if((cmtfirst && c == CHAR_COMMENT_FIRST)) {
-						cmtcontent = false;
-						cmtfirst   = false;
-						// Add comment to the collection
-						String content = temp.substring(0, temp.length()-1)
-											 .toString();
-						comments.push(new SSDComment(content, cmtoneline));
-						temp.setLength(0);
-						if((lastContent != null
-								&& !lastContent.isEmpty()))
-							temp.append(lastContent);
-						cmtoneline  = false;
-						cadd 	    = false;
-						lastContent = null;
-					} else if((c == CHAR_COMMENT_MULTIPLE_LINES)) {
-						cmtfirst = true;
-					}
-				}
-			} else {
-				// Escape logic
-				if(escaped && --escape == 0) 	 escaped = false;
-				if(c == CHAR_ESCAPE && !escaped) escaped = (escape = 2) > 0; else
-				// Quotes logic
-				if(c == CHAR_DOUBLE_QUOTES && !insq && !escaped) indq = !indq; else
-				if(c == CHAR_SINGLE_QUOTES && !indq && !escaped) insq = !insq;
-				// Reading logic
-				else {
-					// Not in quotes
-					if(!indq && !insq) {
-						cadd = false;
-						if((cmtfirst &&
-								(c == CHAR_COMMENT_ONE_LINE ||
-								 c == CHAR_COMMENT_MULTIPLE_LINES))) {
-							cmtcontent  = true;
-							cmtoneline  = c == CHAR_COMMENT_ONE_LINE;
-							cmtfirst    = false;
-							lastContent = temp.toString();
-							temp.setLength(0);
-						} else if((c == CHAR_COMMENT_FIRST)) {
-							cmtfirst = true;
-						} else {
-							// Special loop for content-simple functions
-							if((isfsimple)) {
-								if(c == CHAR_FUNCCALL_OB) ++ctfsimple; else
-								if(c == CHAR_FUNCCALL_CB) --ctfsimple;
-								if(ctfsimple > 0) cadd 		= true;
-								else 			  isfsimple = false;
-							}
-							if(!isfsimple) {
-								if(// Objects and arrays
-								   (c == CHAR_OBJECT_OB ||
-								    c == CHAR_ARRAY_OB) ||
-								   // Annotations
-								   ((!isval && c == CHAR_ANNOTATION_OB) ||
-									(bann   && c == CHAR_SPACE)) 		||
-								   // Function call
-								   (isval && (c == CHAR_FUNCCALL_OB))) {
-									// Current object is an annotation
-									if(((c == CHAR_ANNOTATION_OB && !isval) || bann)) {
-										// Get the annotation name
-										tempName = temp.toString();
-										// Clear the temporary string
-										temp.setLength(0);
-										// Create the annoation object first
-										SSDAnnotation annObj = new SSDAnnotation(tempName);
-										if(!comments.isEmpty()) {
-											// Add all the gotten comments
-											while(!comments.isEmpty()) {
-												annObj.addComment(comments.pollLast());
-											}
-										}
-										// Add the annotation object
-										anns.push(annObj);
-										// If the annotation has some items
-										if(!(bann && c == CHAR_SPACE)) {
-											// Add the annotation object to the parents
-											parents.push(annObj);
-											// Set the current parent
-											parent = annObj;
-											array  = false;
-											annsval.push(true);
-											annscnt.push(anns.size());
-										}
-										bann 	 = false;
-										tempName = null;
-									}
-									// Current object is a function call
-									else if((c == CHAR_FUNCCALL_OB && isval)) {
-										// Check the function call's name first
-										// Set unspecified temporary name if possible
-										if((tempName == null)) {
-											// Annotation (has to be first)
-											if((annsval.peek())) {
-												tempName = WORD_ANNOTATION_DEFAULT;
-											}
-											// Array or function
-											else if((array || function)) {
-												tempName = Integer.toString(counter++);
-											}
-											// Annotation specified after item name
-											else if((lobjName != null)) {
-												tempName = lobjName;
-												lobjName = null; // Only one use
-											}
-											// Other cases
-											else {
-												tempName = lastName;
-											}
-										}
-										// Get the function call's name
-										String funcName = temp.toString();
-										// Clear the temporary string
-										temp.setLength(0);
-										// Create a function call
-										SSDFunctionCall fc = new SSDFunctionCall(parent, tempName, funcName);
-										// Add the function call to the parents
-										parents.push(fc);
-										if(!anns.isEmpty()) {
-											// Add all the gotten annotations
-											int ai = annsval.peek()
-														? anns.size() - annscnt.peek()
-														: anns.size();
-											annsh.clear(); // Clear the helper deque
-											while(--ai >= 0) annsh.push(anns.pop());
-											// Add the gotten annotations to the object correctly
-											// since annotations are gotten in reversed order
-											for(SSDAnnotation a : annsh)
-												fc.addAnnotation0(a);
-										}
-										// Set the current parent
-										parent 	  = fc;
-										array 	  = true;
-										function  = true;
-										isfsimple = func_isContentSimple(funcName, fc.annotations());
-										if(isfsimple) ctfsimple = 1;
-									}
-									// Current object is an array or an object
-									else {
-										// Set unspecified temporary name if possible
-										if((tempName == null)) {
-											// Annotation (has to be first)
-											if((annsval.peek())) {
-												tempName = WORD_ANNOTATION_DEFAULT;
-											}
-											// Array or function
-											else if((array || function)) {
-												tempName = Integer.toString(counter++);
-											}
-											// Annotation specified after item name
-											else if((lobjName != null)) {
-												tempName = lobjName;
-												lobjName = null; // Only one use
-											}
-											// Other cases
-											else {
-												tempName = lastName;
-											}
-										}
-										boolean isarr = c == CHAR_ARRAY_OB;
-										// Create a new collection with the given name
-										SSDCollection arr;
-										if((parents.isEmpty())) {
-											// If no main object has been yet added, add one
-											arr = new SSDCollection(parent, isarr);
-										} else {
-											// Add a regular array or object
-											arr = new SSDCollection(parent, tempName, isarr);
-										}
-										// Add the object to the parents
-										parents.push(arr);
-										if(!anns.isEmpty()) {
-											// Add all the gotten annotations
-											int ai = annsval.peek()
-														? anns.size() - annscnt.peek()
-														: anns.size();
-											annsh.clear(); // Clear the helper deque
-											while(--ai >= 0) annsh.push(anns.pop());
-											// Add the gotten annotations to the object correctly
-											// since annotations are gotten in reversed order
-											for(SSDAnnotation a : annsh)
-												arr.addAnnotation0(a);
-										}
-										if(!comments.isEmpty()) {
-											// Add all the gotten comments
-											while(!comments.isEmpty()) {
-												arr.addComment(comments.pollLast());
-											}
-										}
-										addToParent(parent, tempName, arr);
-										// Set the current parent
-										parent 	 = arr;
-										array 	 = isarr;
-										// Reset the temporary name
-										tempName = null;
-									}
-								}
-								// Item name delimiter or annotation sign
-								else if((c == CHAR_NV_DELIMITER    ||
-										 c == CHAR_ANNOTATION_SIGN ||
-										 (annsval.peek() &&
-											c == CHAR_ANNOTATION_NV_DELIMITER))) {
-									if((c == CHAR_ANNOTATION_SIGN && isval))
-										lobjName = tempName;
-									tempName = temp.toString();
-									bann  	 = c == CHAR_ANNOTATION_SIGN;
-									isval 	 = c != CHAR_ANNOTATION_SIGN || array;
-									if(!annsval.peek()
-											&& !tempName.isEmpty())
-										lastName = tempName;
-									temp.setLength(0);
-								}
-								// Item delimiter
-								else if((c == CHAR_ITEM_DELIMITER ||
-										(annsval.peek() &&
-											c == CHAR_ANNOTATION_ITEM_DELIMITER) ||
-										(function &&
-											c == CHAR_FUNCCALL_ARGS_DELIMITER))) {
-									String value;
-									if(!(value = temp.toString()).isEmpty()) {
-										// Set unspecified temporary name if possible
-										if((tempName == null)) {
-											// Annotation (has to be first)
-											if((annsval.peek())) {
-												tempName = WORD_ANNOTATION_DEFAULT;
-											}
-											// Array or function
-											else if((array || function)) {
-												tempName = Integer.toString(counter++);
-											}
-											// Annotation specified after item name
-											else if((lobjName != null)) {
-												tempName = lobjName;
-												lobjName = null; // Only one use
-											}
-											// Other cases
-											else {
-												tempName = lastName;
-											}
-										}
-										if((tempName != null)) {
-											SSDObject obj = new SSDObject(parent, tempName, value);
-											if(!anns.isEmpty()) {
-												// Add all the gotten annotations
-												int ai = annsval.peek()
-															? anns.size() - annscnt.peek()
-															: anns.size();
-												annsh.clear(); // Clear the helper deque
-												while(--ai >= 0) annsh.push(anns.pop());
-												// Add the gotten annotations to the object correctly
-												// since annotations are gotten in reversed order
-												for(SSDAnnotation a : annsh)
-													obj.addAnnotation0(a);
-											}
-											if(!comments.isEmpty()) {
-												// Add all the gotten comments
-												while(!comments.isEmpty()) {
-													obj.addComment(comments.pollLast());
-												}
-											}
-											addToParent(parent, tempName, obj);
-											temp.setLength(0);
-											tempName = null;
-										}
-									}
-									isval = array;
-								}
-								// Closing brackets
-								else if(c == CHAR_OBJECT_CB 	||
-										c == CHAR_ARRAY_CB  	||
-										c == CHAR_ANNOTATION_CB ||
-										c == CHAR_FUNCCALL_CB) {
-									// Add last item in an object, or an array, if needed
-									String value;
-									if(!(value = temp.toString()).isEmpty()) {
-										// Set unspecified temporary name if possible
-										if((tempName == null)) {
-											// Annotation (has to be first)
-											if((annsval.peek())) {
-												tempName = WORD_ANNOTATION_DEFAULT;
-											}
-											// Array or function
-											else if((array || function)) {
-												tempName = Integer.toString(counter++);
-											}
-											// Annotation specified after item name
-											else if((lobjName != null)) {
-												tempName = lobjName;
-												lobjName = null; // Only one use
-											}
-											// Other cases
-											else {
-												tempName = lastName;
-											}
-										}
-										if((tempName != null)) {
-											SSDObject obj = new SSDObject(parent, tempName, value);
-											if(!anns.isEmpty()) {
-												// Add all the gotten annotations
-												int ai = annsval.peek()
-															? anns.size() - annscnt.peek()
-															: anns.size();
-												annsh.clear(); // Clear the helper deque
-												while(--ai >= 0) annsh.push(anns.pop());
-												// Add the gotten annotations to the object correctly
-												// since annotations are gotten in reversed order
-												for(SSDAnnotation a : annsh)
-													obj.addAnnotation0(a);
-											}
-											if(!comments.isEmpty()) {
-												// Add all the gotten comments
-												while(!comments.isEmpty()) {
-													obj.addComment(comments.pollLast());
-												}
-											}
-											addToParent(parent, tempName, obj);
-											temp.setLength(0);
-											tempName = null;
-											// Function call special condition
-										}
-									}
-									isval = array;
-									// Do not add this character
-									cadd = false;
-									// Remove the currently used parent
-									SSDNode par = parents.pop();
-									if((par != null)) {
-										// The main object was removed
-										if((parents.isEmpty()
-												&& par.getName() == null)) {
-											// Return the main object
-											return (SSDCollection) par;
-										}
-										// Add the constructed function
-										else if((function
-													// Cannot be argument's annotation
-													&& !annsval.peek())) {
-											isfsimple 				 = false; // important
-											SSDFunctionCall func 	 = (SSDFunctionCall) par;
-											String			funcName = func.getName();
-											addToParent(parents.peek(), funcName, func);
-										}
-									}
-									// Set the current parent
-									parent = parents.peek();
-									array  = isParentArray(parent);
-									if((function
-											// Cannot be argument's annotation
-											&& !annsval.peek())) {
-										if((c == CHAR_FUNCCALL_CB))
-											function = parent instanceof SSDFunctionCall;
-									} else {
-										if((annsval.peek() && c == CHAR_ANNOTATION_CB)) {
-											annsval.pop();
-											annscnt.pop();
-										}
-									}
-								}
-								// All other characters should be added
-								else cadd = true;
-							}
-						}
-					}
-				}
-			}
-			// Add the current character if it can be added
-			if(cadd) temp.append((char) c);
-		}
-		// Error, bad formatting, or whatever else happened
-		return null;
-	}
-	
 	static final void addToParent(SSDNode parent, String name, SSDNode object) {
 		if((parent instanceof SSDCollection)) {
 			SSDCollection coll = (SSDCollection) parent;
@@ -680,21 +249,31 @@ public final class SSDF {
 	
 	static final String FUNC_CONTENT_SIMPLE = "CONTENT_SIMPLE";
 	static final boolean func_isContentSimple(String funcName, Set<SSDAnnotation> anns) {
+		String namespace = SSDFunctionCall.FUNCTION_PREFIX;
+		String ann_dname = SSDFunctionCall.ANNOTATION_NAMESPACE;
+		if((anns != null)) {
+			for(SSDAnnotation ann : anns) {
+				String name = ann.getName();
+				if((name.equalsIgnoreCase(ann_dname))) {
+					try {
+						namespace = ann.getString("value");
+					} catch(Exception ex) {
+						namespace = null;
+					}
+					break;
+				}
+			}
+		}
+		return func_isContentSimple(funcName, namespace);
+	}
+	
+	static final boolean func_isContentSimple(String funcName, String namespace) {
 		try {
-			String namespace;
 			String[] split = funcName.split("\\" + CHAR_NAME_DELIMITER);
 			if((split.length == 1)) {
-				namespace 		 = SSDFunctionCall.FUNCTION_PREFIX;
-				String ann_dname = SSDFunctionCall.ANNOTATION_NAMESPACE;
-				if((anns != null)) {
-					for(SSDAnnotation ann : anns) {
-						String name = ann.getName();
-						if((name.equalsIgnoreCase(ann_dname))) {
-							namespace = ann.getString("value");
-							break;
-						}
-					}
-				}
+				// Invalid namespace annotation
+				if((namespace == null))
+					return false;
 			} else {
 				namespace = ""; // Namespace defined in funcName
 			}
@@ -723,19 +302,53 @@ public final class SSDF {
 		return SSDCollection.emptyArray();
 	}
 	
+	public static final SSDCollection concurrent() {
+		return SSDCollection.concurrent();
+	}
+	
+	public static final SSDCollection concurrentArray() {
+		return SSDCollection.concurrentArray();
+	}
+	
+	public static final SSDCollection persistent() {
+		return SSDCollection.persistent();
+	}
+	
+	public static final SSDCollection persistentArray() {
+		return SSDCollection.persistentArray();
+	}
+	
 	public static final SSDCollection read(String content) {
+		return read(content, SSDParseOptions.DEFAULT);
+	}
+	
+	public static final SSDCollection read(String content, SSDParseOptions options) {
 		if((content == null)) {
 			throw new IllegalArgumentException("Content cannot be null");
 		}
-		char[] chars = format(content.toCharArray());
-		return readObjects(chars, 0, chars.length);
+		if((options == null)) {
+			throw new IllegalArgumentException("Options cannot be null");
+		}
+		if((options.isStrictJson()))
+			return JSON.read(content);
+		return SSDParser.parse(content, options);
 	}
 	
 	public static final SSDCollection read(InputStream stream) {
+		return read(stream, SSDParseOptions.DEFAULT);
+	}
+	
+	public static final SSDCollection read(InputStream stream, SSDParseOptions options) {
 		if((stream == null)) {
 			throw new IllegalArgumentException("Stream cannot be null");
 		}
-		return read(streamToString(stream));
+		if((options == null)) {
+			throw new IllegalArgumentException("Options cannot be null");
+		}
+		if((options.isStrictJson()))
+			return JSON.read(stream);
+		// Decode and parse the stream in chunks, without buffering it whole
+		return SSDParser.parse(stream, options);
 	}
 	
 	public static final SSDCollection read(File file) {
@@ -743,12 +356,251 @@ public final class SSDF {
 			throw new IllegalArgumentException("File cannot be null");
 		}
 		try {
-			return read(new FileInputStream(file));
+			return read(file.toPath());
 		} catch(Exception ex) {
 			throw new IllegalStateException("An error has occurred while trying to read the given file");
 		}
 	}
 	
+	public static final SSDCollection read(Path path) {
+		return read(path, SSDParseOptions.DEFAULT);
+	}
+	
+	public static final SSDCollection read(Path path, SSDParseOptions options) {
+		if((path == null)) {
+			throw new IllegalArgumentException("Path cannot be null");
+		}
+		if((options == null)) {
+			throw new IllegalArgumentException("Options cannot be null");
+		}
+		if((options.isStrictJson()))
+			return JSON.read(path.toFile());
+		try {
+			if((options.isStringSlices())) {
+				// Slices cannot be views of a mapped file, since the file can be
+				// changed, or even truncated, while they are still used
+				byte[] bytes = Files.readAllBytes(path);
+				return SSDParser.parse(new SSDReader(ByteBuffer.wrap(bytes)).options(options).retain(bytes));
+			}
+			// The file is mapped to memory and parsed directly from there
+			try(SSDReader reader = new SSDReader(path)) {
+				return SSDParser.parse(reader.options(options));
+			}
+		} catch(IOException ex) {
+			throw new IllegalStateException("An error has occurred while trying to read the given file");
+		}
+	}
+	
+	public static final CompletableFuture<SSDCollection> readAsync(Path path) {
+		return readAsync(path, SSDParseOptions.DEFAULT);
+	}
+	
+	public static final CompletableFuture<SSDCollection> readAsync(Path path, SSDParseOptions options) {
+		if((path == null)) {
+			throw new IllegalArgumentException("Path cannot be null");
+		}
+		if((options == null)) {
+			throw new IllegalArgumentException("Options cannot be null");
+		}
+		// The file is read by the default thread pool of asynchronous channels
+		return readAsync(path, options, null, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Reads the given file asynchronously. The file is read using an asynchronous
+	 * file channel whose operations are run on the given executor, the content
+	 * is then parsed on the same executor. No calling thread is blocked.*/
+	public static final CompletableFuture<SSDCollection> readAsync(Path path, SSDParseOptions options,
+			ExecutorService executor) {
+		if((path == null)) {
+			throw new IllegalArgumentException("Path cannot be null");
+		}
+		if((options == null)) {
+			throw new IllegalArgumentException("Options cannot be null");
+		}
+		if((executor == null)) {
+			throw new IllegalArgumentException("Executor cannot be null");
+		}
+		return readAsync(path, options, executor, executor);
+	}
+	
+	private static final CompletableFuture<SSDCollection> readAsync(Path path, SSDParseOptions options,
+			ExecutorService io, Executor executor) {
+		return SSDAsync.read(path, io).thenApplyAsync((buffer) -> {
+			if((options.isStrictJson()))
+				return JSON.read(new String(buffer.array(), 0, buffer.limit(), CHARSET));
+			SSDReader reader = new SSDReader(buffer).options(options);
+			if((options.isStringSlices()))
+				reader.retain(buffer.array());
+			return SSDParser.parse(reader);
+		}, executor);
+	}
+	
+	public static final SSDCollection readLazy(String content) {
+		if((content == null)) {
+			throw new IllegalArgumentException("Content cannot be null");
+		}
+		char[] chars = content.toCharArray();
+		return SSDParser.parseLazy(new SSDReader(chars, 0, chars.length));
+	}
+	
+	public static final SSDCollection readLazy(Path path) {
+		if((path == null)) {
+			throw new IllegalArgumentException("Path cannot be null");
+		}
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			// Files that cannot be mapped at once are read as usual
+			if((size > Integer.MAX_VALUE))
+				return read(path);
+			// The mapping stays valid even after the channel is closed
+			ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0L, size);
+			return SSDParser.parseLazy(new SSDReader(buffer));
+		} catch(IOException ex) {
+			throw new IllegalStateException("An error has occurred while trying to read the given file");
+		}
+	}
+	
+	public static final SSDCollection readFrozen(String content) {
+		return readFrozen(content, SSDParseOptions.DEFAULT);
+	}
+	
+	/**
+	 * Reads the given content as a frozen collection, that cannot be modified
+	 * and can be shared by any number of threads. See {@link SSDCollection#freeze()}.*/
+	public static final SSDCollection readFrozen(String content, SSDParseOptions options) {
+		SSDCollection collection = read(content, options);
+		return collection != null ? collection.freeze() : null;
+	}
+	
+	public static final SSDCollection readFrozen(Path path) {
+		return readFrozen(path, SSDParseOptions.DEFAULT);
+	}
+	
+	public static final SSDCollection readFrozen(Path path, SSDParseOptions options) {
+		SSDCollection collection = read(path, options);
+		return collection != null ? collection.freeze() : null;
+	}
+	
+	public static final SSDCollection readFrozen(InputStream stream) {
+		return readFrozen(stream, SSDParseOptions.DEFAULT);
+	}
+	
+	public static final SSDCollection readFrozen(InputStream stream, SSDParseOptions options) {
+		SSDCollection collection = read(stream, options);
+		return collection != null ? collection.freeze() : null;
+	}
+	
+	public static final SSDCollection readParallel(String content) {
+		return readParallel(content, ForkJoinPool.commonPool());
+	}
+	
+	public static final SSDCollection readParallel(String content, ForkJoinPool pool) {
+		if((content == null)) {
+			throw new IllegalArgumentException("Content cannot be null");
+		}
+		if((pool == null)) {
+			throw new IllegalArgumentException("Pool cannot be null");
+		}
+		char[] chars = content.toCharArray();
+		return SSDParser.parseParallel(new SSDReader(chars, 0, chars.length), chars.length, pool);
+	}
+	
+	public static final SSDCollection readParallel(Path path) {
+		return readParallel(path, ForkJoinPool.commonPool());
+	}
+	
+	public static final SSDCollection readParallel(Path path, ForkJoinPool pool) {
+		if((path == null)) {
+			throw new IllegalArgumentException("Path cannot be null");
+		}
+		if((pool == null)) {
+			throw new IllegalArgumentException("Pool cannot be null");
+		}
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			// Files that cannot be mapped at once are read sequentially
+			if((size > Integer.MAX_VALUE))
+				return read(path);
+			ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0L, size);
+			return SSDParser.parseParallel(new SSDReader(buffer), (int) size, pool);
+		} catch(IOException ex) {
+			throw new IllegalStateException("An error has occurred while trying to read the given file");
+		}
+	}
+	
+	public static final Map<Path, SSDCollection> readAll(Collection<Path> paths) {
+		return readAll(paths, SSDParseOptions.DEFAULT, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Reads all the given files concurrently, each file is read as a whole by
+	 * a task run on the given executor. The returned map contains the read
+	 * collections in the order of the given paths. If any of the files cannot
+	 * be read, the exception is thrown once all the tasks are done.*/
+	public static final Map<Path, SSDCollection> readAll(Collection<Path> paths, SSDParseOptions options,
+			Executor executor) {
+		if((paths == null)) {
+			throw new IllegalArgumentException("Paths cannot be null");
+		}
+		if((options == null)) {
+			throw new IllegalArgumentException("Options cannot be null");
+		}
+		if((executor == null)) {
+			throw new IllegalArgumentException("Executor cannot be null");
+		}
+		List<CompletableFuture<SSDCollection>> tasks = new ArrayList<>(paths.size());
+		for(Path path : paths) {
+			if((path == null)) {
+				throw new IllegalArgumentException("Path cannot be null");
+			}
+			tasks.add(CompletableFuture.supplyAsync(() -> read(path, options), executor));
+		}
+		try {
+			CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()])).join();
+		} catch(CompletionException ex) {
+			Throwable cause = ex.getCause();
+			if((cause instanceof RuntimeException))
+				throw (RuntimeException) cause;
+			throw ex;
+		}
+		Map<Path, SSDCollection> map = new LinkedHashMap<>();
+		int i = 0;
+		for(Path path : paths)
+			map.put(path, tasks.get(i++).join());
+		return map;
+	}
+	
+	public static final Map<Path, SSDCollection> readDirectory(Path dir, String glob) {
+		return readDirectory(dir, glob, SSDParseOptions.DEFAULT, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Reads all the files in the given directory, whose names match the given
+	 * glob pattern, concurrently. Subdirectories are not read. The returned map
+	 * contains the read collections in the order of the paths' names.*/
+	public static final Map<Path, SSDCollection> readDirectory(Path dir, String glob, SSDParseOptions options,
+			Executor executor) {
+		if((dir == null)) {
+			throw new IllegalArgumentException("Directory cannot be null");
+		}
+		if((glob == null || glob.isEmpty())) {
+			throw new IllegalArgumentException("Glob cannot be null or empty");
+		}
+		List<Path> paths = new ArrayList<>();
+		try(DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+			for(Path path : stream) {
+				if((Files.isRegularFile(path)))
+					paths.add(path);
+			}
+		} catch(IOException ex) {
+			throw new IllegalStateException("An error has occurred while trying to read the given directory");
+		}
+		// Sort the paths so that the order does not depend on the file system
+		paths.sort(null);
+		return readAll(paths, options, executor);
+	}
+	
 	public static final SSDCollection readResource(String path) {
 		if((path == null || path.isEmpty())) {
 			throw new IllegalArgumentException("Path cannot be null or empty");
@@ -793,8 +645,8 @@ public final class SSDF {
 			if((file == null)) {
 				throw new IllegalArgumentException("File cannot be null");
 			}
-			try {
-				return read(new FileInputStream(file));
+			try(InputStream stream = new FileInputStream(file)) {
+				return read(stream);
 			} catch(Exception ex) {
 				throw new IllegalStateException("An error has occurred while trying to read the given file");
 			}
@@ -808,113 +660,180 @@ public final class SSDF {
 		}
 		
 		private static final SSDCollection read(String content, int off, int len) {
-			// determining if a character is in double quotes
-			boolean              indq     = false;
-			// determining if a character is in single quotes
-			boolean              insq     = false;
-			// temporary objects for names and values
-			StringBuilder        temp     = new StringBuilder();
-			String               lastTemp = null;
-			// determining if a character can be added
-			boolean              cadd     = false;
-			// determining if a character is escaped
-			boolean              escaped  = false;
-			// current escape strength
-			int	                 escape   = 0;
 			// objects for handling information about parents
 			Deque<SSDCollection> parents  = new ArrayDeque<>();
 			SSDCollection        parent   = null;
 			boolean              isArray  = false;
+			// name of the current item
+			String               lastTemp = null;
+			// range of the current value, the value is kept in a temporary
+			// object only if it consists of multiple separated parts
+			int                  tstart   = -1;
+			int                  tend     = -1;
+			StringBuilder        temp     = null;
+			// repeated names share a single instance
+			SSDInterner          names    = new SSDInterner();
 			// read the characters and construct the objects
-			read: for(int i = off, l = off + len, c; i < l; ++i) {
-				cadd = true;
-				c 	 = content.charAt(i);
-				// escape logic
-				if((escaped && --escape == 0))     escaped = false;
-				if((c == CHAR_ESCAPE && !escaped)) escaped = (escape = 2) > 0; else
-				// quotes logic
-				if((c == CHAR_DOUBLE_QUOTES && !insq && !escaped)) indq = !indq; else
-				if((c == CHAR_SINGLE_QUOTES && !indq && !escaped)) insq = !insq;
-				// reading logic
-				else {
-					// check if not in quotes
-					if(!indq && !insq) {
-						cadd = false;
-						// remove useless whitespace characters
-						if((Character.isWhitespace(c))) {
-							do {
-								if((i + 1 >= len))
-									// end of the string
-									break read;
-								c = content.charAt(++i);
-							}
-							// loop while the character is whitespace
-							while(Character.isWhitespace(c));
-							// go back one character, and continue the read loop
-							// to process the next non-whitespace character
-							--i; continue;
-						}
-						// object or array begin definition
-						if((c == CHAR_OBJECT_OB || c == CHAR_ARRAY_OB)) {
-							boolean array = c == CHAR_ARRAY_OB;
-							SSDCollection object;
-							if((parent != null)) {
-								object = SSDCollection.empty(array);
-								if((isArray && lastTemp == null)) {
-									lastTemp = Integer.toString(parent.length());
-								}
-								parent.setDirect(lastTemp, object);
-								lastTemp = null;
-							} else {
-								// the main object
-								object = new SSDCollection(null, array);
-							}
-							parents.push(object);
-							parent  = object;
-							isArray = array;
-						}
-						// object or array end definition
-						else if((c == CHAR_OBJECT_CB || c == CHAR_ARRAY_CB)) {
-							if((temp.length() > 0)) {
-								if((isArray && lastTemp == null)) {
-									lastTemp = Integer.toString(parent.length());
-								}
-								SSDObject object = SSDObject.ofRaw(lastTemp, temp.toString());
-								parent.setDirect(lastTemp, object);
-								lastTemp = null;
-								temp.setLength(0);
-							}
-							parent = parents.pop();
-							if(!parents.isEmpty())
-								parent = parents.peek();
-							isArray = parent.getType() == SSDCollectionType.ARRAY;
+			for(int i = off, l = off + len, c; i < l; ++i) {
+				c = content.charAt(i);
+				// remove useless whitespace characters
+				if((Character.isWhitespace(c)))
+					continue;
+				// object or array begin definition
+				if((c == CHAR_OBJECT_OB || c == CHAR_ARRAY_OB)) {
+					boolean array = c == CHAR_ARRAY_OB;
+					SSDCollection object;
+					if((parent != null)) {
+						if((isArray && lastTemp == null)) {
+							lastTemp = SSDInterner.index(parent.length());
 						}
-						// item end definition
-						else if((c == CHAR_ITEM_DELIMITER)) {
-							if((temp.length() > 0)) {
-								if((isArray && lastTemp == null)) {
-									lastTemp = Integer.toString(parent.length());
-								}
-								SSDObject object = SSDObject.ofRaw(lastTemp, temp.toString());
-								parent.setDirect(lastTemp, object);
-								lastTemp = null;
-								temp.setLength(0);
-							}
-						}
-						// item name definition
-						else if((c == CHAR_NV_DELIMITER)) {
-							lastTemp = temp.toString();
-							lastTemp = lastTemp.substring(1, lastTemp.length() - 1);
-							temp.setLength(0);
+						object = SSDCollection.empty(array);
+						parent.setDirect(lastTemp, object);
+						lastTemp = null;
+					} else {
+						// the main object
+						object = new SSDCollection(null, array);
+					}
+					parents.push(object);
+					parent  = object;
+					isArray = array;
+				}
+				// object or array end definition, or item end definition
+				else if((c == CHAR_OBJECT_CB || c == CHAR_ARRAY_CB || c == CHAR_ITEM_DELIMITER)) {
+					if((tstart >= 0)) {
+						if((isArray && lastTemp == null)) {
+							lastTemp = SSDInterner.index(parent.length());
 						}
-						// other characters
-						else cadd = true;
+						SSDObject object = temp == null
+												? createObject(parent, lastTemp, content, tstart, tend)
+												: new SSDObject(parent, lastTemp, temp.toString());
+						parent.setDirect(lastTemp, object);
+						lastTemp = null;
+						tstart   = -1;
+						temp     = null;
+					}
+					if((c != CHAR_ITEM_DELIMITER)) {
+						parent = parents.pop();
+						if(!parents.isEmpty())
+							parent = parents.peek();
+						isArray = parent.getType() == SSDCollectionType.ARRAY;
+					}
+				}
+				// item name definition
+				else if((c == CHAR_NV_DELIMITER)) {
+					// remove the quotes
+					lastTemp = temp != null
+									? names.intern(temp.substring(1, temp.length() - 1))
+									: tstart >= 0
+										? names.intern(content, tstart + 1, tend - 1)
+										: null;
+					tstart = -1;
+					temp   = null;
+				}
+				// a string or a literal
+				else {
+					int end = c == CHAR_DOUBLE_QUOTES || c == CHAR_SINGLE_QUOTES
+									? skipString (content, i, l, c)
+									: skipLiteral(content, i, l);
+					if((tstart < 0)) {
+						tstart = i;
+						tend   = end;
+					} else {
+						// the value is split by whitespace characters
+						if((temp == null))
+							temp = new StringBuilder().append(content, tstart, tend);
+						temp.append(content, i, end);
 					}
+					i = end - 1;
 				}
-				// add the current character, if possible
-				if((cadd)) temp.append((char) c);
 			}
 			return parent;
 		}
+		
+		// returns the position after the closing quote of a string
+		private static final int skipString(String content, int i, int l, int quote) {
+			for(int c; ++i < l;) {
+				c = content.charAt(i);
+				if(c == CHAR_ESCAPE) ++i; else
+				if(c == quote) return i + 1;
+			}
+			return l;
+		}
+		
+		// returns the position after the last character of a literal
+		private static final int skipLiteral(String content, int i, int l) {
+			for(int c; i < l; ++i) {
+				c = content.charAt(i);
+				if((c == CHAR_ESCAPE)) {
+					// escaped quotes do not begin a string
+					if((i + 1 < l && ((c = content.charAt(i + 1)) == CHAR_DOUBLE_QUOTES
+										|| c == CHAR_SINGLE_QUOTES)))
+						++i;
+					continue;
+				}
+				if((c == CHAR_OBJECT_OB || c == CHAR_OBJECT_CB
+						|| c == CHAR_ARRAY_OB || c == CHAR_ARRAY_CB
+						|| c == CHAR_ITEM_DELIMITER || c == CHAR_NV_DELIMITER
+						|| c == CHAR_DOUBLE_QUOTES || c == CHAR_SINGLE_QUOTES
+						|| Character.isWhitespace(c)))
+					break;
+			}
+			return i;
+		}
+		
+		// creates a typed object from the value at the given range, the type
+		// is determined by the first character without any regular expressions
+		private static final SSDObject createObject(SSDNode parent, String name, String content,
+				int start, int end) {
+			int c = content.charAt(start);
+			if((c == CHAR_DOUBLE_QUOTES || c == CHAR_SINGLE_QUOTES)) {
+				if((isString(content, start, end)))
+					return new SSDObject(parent, name, SSDType.STRING,
+					                     new SSDValue(unescape(content, start + 1, end - 1),
+					                                  content.substring(start, end)));
+			}
+			SSDType  type = SSDType.match(content, start, end);
+			SSDValue val;
+			// numbers are parsed directly from the content
+			if(((type == SSDType.INTEGER || type == SSDType.DECIMAL)
+					&& (val = SSDValue.number(type, content, start, end)) != null))
+				return SSDPrimitive.of(parent, name, type, val);
+			String value = content.substring(start, end);
+			if((type == null || type == SSDType.STRING)) {
+				// other values need the full recognition
+				return new SSDObject(parent, name, value);
+			}
+			return SSDPrimitive.of(parent, name, value, false, type);
+		}
+		
+		// checks whether the string at the given range is a complete string
+		// that does not contain any line terminator
+		private static final boolean isString(String content, int start, int end) {
+			if((end - start < 2 || skipString(content, start, end, content.charAt(start)) != end))
+				return false;
+			for(int i = start + 1, c; i < end; ++i) {
+				if((c = content.charAt(i)) == '\n' || c == '\r'
+						|| c == '\u0085' || c == '\u2028' || c == '\u2029')
+					return false;
+			}
+			return true;
+		}
+		
+		// the same unescaping as the one of SSDType.STRING
+		private static final String unescape(String content, int start, int end) {
+			int i = content.indexOf(CHAR_ESCAPE, start);
+			if((i < 0 || i >= end))
+				return content.substring(start, end);
+			StringBuilder sb = new StringBuilder(end - start);
+			sb.append(content, start, i);
+			boolean escaped = false;
+			for(int c; i < end; ++i) {
+				c = content.charAt(i);
+				if(!escaped && c == CHAR_ESCAPE) escaped = true;
+				else 					  		 escaped = false;
+				if(!escaped) sb.append((char) c);
+			}
+			return sb.toString();
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package sune.util.ssdf2;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map of nodes of a frozen collection, that cannot be modified. The nodes are
+ * stored in an array in their order. Names that are the indexes of the nodes,
+ * e.g. of an array, are not stored at all, other names are looked up in an open
+ * addressing table, together with their hashes, so that a name is compared only
+ * to the names with the same hash.<br><br>
+ * Any number of threads can read the map at once, once the map is published.*/
+final class SSDFrozenMap extends AbstractMap<String, SSDNode> {
+	
+	private final SSDNode[] nodes;
+	// Names of the nodes, or null, if the names are their indexes
+	private final String[] names;
+	private final int[] hashes;
+	// Indexes of the nodes plus one, zero marks an empty slot
+	private final int[] table;
+	
+	SSDFrozenMap(String[] names, SSDNode[] nodes) {
+		this.nodes = nodes;
+		if((isIndexed(names))) {
+			this.names  = null;
+			this.hashes = null;
+			this.table  = null;
+			return;
+		}
+		int length = names.length;
+		int[] hashes = new int[length];
+		// At most a half of the table is used
+		int[] table = new int[Integer.highestOneBit(Math.max(length, 1)) << 2];
+		int mask = table.length - 1;
+		for(int i = 0, h; i < length; ++i) {
+			hashes[i] = h = names[i].hashCode();
+			int k = mix(h) & mask;
+			while(table[k] != 0)
+				k = (k + 1) & mask;
+			table[k] = i + 1;
+		}
+		this.names  = names;
+		this.hashes = hashes;
+		this.table  = table;
+	}
+	
+	private static final boolean isIndexed(String[] names) {
+		for(int i = 0, l = names.length; i < l; ++i) {
+			if((SSDArrayMap.index(names[i]) != i))
+				return false;
+		}
+		return true;
+	}
+	
+	private static final int mix(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+	
+	private final int indexOf(Object key) {
+		if((names == null)) {
+			int i = SSDArrayMap.index(key);
+			return i < nodes.length ? i : -1;
+		}
+		if(!(key instanceof String))
+			return -1;
+		int hash = key.hashCode();
+		int mask = table.length - 1;
+		for(int k = mix(hash) & mask, i; (i = table[k]) != 0; k = (k + 1) & mask) {
+			if((hashes[--i] == hash && names[i].equals(key)))
+				return i;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Gets the node at the given index, or {@code null}, if there is no such
+	 * node.*/
+	SSDNode get(int index) {
+		if((names != null))
+			return get(SSDInterner.index(index));
+		return index >= 0 && index < nodes.length ? nodes[index] : null;
+	}
+	
+	private final String name(int index) {
+		return names != null ? names[index] : SSDInterner.index(index);
+	}
+	
+	@Override
+	public int size() {
+		return nodes.length;
+	}
+	
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+	
+	@Override
+	public SSDNode get(Object key) {
+		int i = indexOf(key);
+		return i >= 0 ? nodes[i] : null;
+	}
+	
+	@Override
+	public Collection<SSDNode> values() {
+		return new Values();
+	}
+	
+	@Override
+	public Set<Entry<String, SSDNode>> entrySet() {
+		return new Entries();
+	}
+	
+	private abstract class Iter<T> implements Iterator<T> {
+		
+		int next;
+		
+		@Override
+		public boolean hasNext() {
+			return next < nodes.length;
+		}
+		
+		final int nextIndex() {
+			if((next >= nodes.length))
+				throw new NoSuchElementException();
+			return next++;
+		}
+	}
+	
+	private final class Values extends AbstractCollection<SSDNode> {
+		
+		@Override
+		public Iterator<SSDNode> iterator() {
+			return new Iter<SSDNode>() {
+				
+				@Override
+				public SSDNode next() {
+					return nodes[nextIndex()];
+				}
+			};
+		}
+		
+		@Override
+		public int size() {
+			return nodes.length;
+		}
+	}
+	
+	private final class Entries extends AbstractSet<Entry<String, SSDNode>> {
+		
+		@Override
+		public Iterator<Entry<String, SSDNode>> iterator() {
+			return new Iter<Entry<String, SSDNode>>() {
+				
+				@Override
+				public Entry<String, SSDNode> next() {
+					int i = nextIndex();
+					return new SimpleImmutableEntry<>(name(i), nodes[i]);
+				}
+			};
+		}
+		
+		@Override
+		public int size() {
+			return nodes.length;
+		}
+	}
+}
\ No newline at end of file
@@ -12,6 +12,7 @@ import static sune.util.ssdf2.SSDF.WORD_NULL;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -28,7 +29,7 @@ public class SSDFunctionCall extends SSDObject {
 	}
 	
 	SSDFunctionCall(SSDNode parent, String name, String funcName, Set<SSDNode> funcArgs) {
-		super(parent, name, SSDType.UNKNOWN, new SSDValue(""), new SSDValue(""));
+		super(parent, name, SSDType.UNKNOWN, new SSDValue(""));
 		this.funcName = funcName;
 		this.funcArgs = funcArgs;
 	}
@@ -82,8 +83,10 @@ public class SSDFunctionCall extends SSDObject {
 							put(WORD_ANNOTATION_DEFAULT,
 							    	new SSDObject(null, WORD_ANNOTATION_DEFAULT, fn));
 						}});
-					// Add the namespace to the function implementation
-					obj.addAnnotation0(nsa);
+					// Add the namespace to the function implementation,
+					// frozen objects may be shared, so they are left as they are
+					if(!obj.isFrozen())
+						obj.addAnnotation0(nsa);
 				} else {
 					namespace = space;
 				}
@@ -151,6 +154,17 @@ public class SSDFunctionCall extends SSDObject {
 		                           copyArgs);
 	}
 	
+	@Override
+	SSDFunctionCall newCopy(SSDNode parent, boolean frozen) {
+		Set<SSDNode> args = new LinkedHashSet<>();
+		SSDFunctionCall copy = new SSDFunctionCall(parent, name, funcName,
+		                                           frozen ? Collections.unmodifiableSet(args) : args);
+		// The arguments are children of the function call
+		for(SSDNode n : funcArgs)
+			args.add(SSDCollection.copy(n, copy, frozen));
+		return copy;
+	}
+	
 	@Override
 	public boolean equals(Object obj) {
 		if((obj == null
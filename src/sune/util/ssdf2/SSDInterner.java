@@ -0,0 +1,138 @@
+package sune.util.ssdf2;
+
+import java.util.Arrays;
+
+/**
+ * Table of names used while reading, so that the repeated names share a single
+ * instance. The names are looked up directly by their characters, therefore
+ * no string is created for a name that has already been interned. Also holds
+ * a shared cache of the names of small indexes.*/
+final class SSDInterner {
+	
+	// Maximum length of an interned name
+	private static final int MAX_LENGTH = 64;
+	// Maximum number of interned names, the table is cleared when exceeded
+	private static final int MAX_SIZE 	= 1 << 12;
+	// Number of the cached index names
+	private static final int INDEXES 	= 1024;
+	
+	private static final String[] INDEX_NAMES;
+	static {
+		INDEX_NAMES = new String[INDEXES];
+		for(int i = 0; i < INDEXES; ++i)
+			INDEX_NAMES[i] = Integer.toString(i);
+	}
+	
+	private String[] names  = new String[64];
+	private int[]    hashes = new int[64];
+	private int      size;
+	
+	/**
+	 * Gets the name of the given index, small indexes share a single instance.*/
+	static final String index(int index) {
+		return index >= 0 && index < INDEXES
+					? INDEX_NAMES[index]
+					: Integer.toString(index);
+	}
+	
+	String intern(char[] chars, int off, int len) {
+		if((len > MAX_LENGTH))
+			return new String(chars, off, len);
+		int hash = 0;
+		for(int i = off, l = off + len; i < l; ++i)
+			hash = 31 * hash + chars[i];
+		int mask = names.length - 1;
+		for(int i = mix(hash) & mask;; i = (i + 1) & mask) {
+			String name = names[i];
+			if((name == null))
+				return add(i, hash, new String(chars, off, len));
+			if((hashes[i] == hash && equals(name, chars, off, len)))
+				return name;
+		}
+	}
+	
+	String intern(String string, int start, int end) {
+		int len = end - start;
+		if((len < 0 || len > MAX_LENGTH))
+			return string.substring(start, end);
+		int hash = 0;
+		for(int i = start; i < end; ++i)
+			hash = 31 * hash + string.charAt(i);
+		int mask = names.length - 1;
+		for(int i = mix(hash) & mask;; i = (i + 1) & mask) {
+			String name = names[i];
+			if((name == null))
+				return add(i, hash, string.substring(start, end));
+			if((hashes[i] == hash && name.length() == len
+					&& name.regionMatches(0, string, start, len)))
+				return name;
+		}
+	}
+	
+	String intern(String string) {
+		if((string.length() > MAX_LENGTH))
+			return string;
+		int hash = string.hashCode();
+		int mask = names.length - 1;
+		for(int i = mix(hash) & mask;; i = (i + 1) & mask) {
+			String name = names[i];
+			if((name == null))
+				return add(i, hash, string);
+			if((hashes[i] == hash && name.equals(string)))
+				return name;
+		}
+	}
+	
+	void clear() {
+		if((size > 0)) {
+			Arrays.fill(names, null);
+			size = 0;
+		}
+	}
+	
+	private final String add(int i, int hash, String name) {
+		if((size >= MAX_SIZE)) {
+			// Too many different names, start again
+			clear();
+			return intern(name);
+		}
+		names [i] = name;
+		hashes[i] = hash;
+		if((++size > (names.length >> 1) + (names.length >> 2)))
+			resize();
+		return name;
+	}
+	
+	private final void resize() {
+		String[] oldNames  = names;
+		int[]    oldHashes = hashes;
+		int      length    = oldNames.length << 1;
+		int      mask 	   = length - 1;
+		names  = new String[length];
+		hashes = new int[length];
+		for(int k = 0, l = oldNames.length; k < l; ++k) {
+			String name = oldNames[k];
+			if((name == null))
+				continue;
+			int i = mix(oldHashes[k]) & mask;
+			while(names[i] != null)
+				i = (i + 1) & mask;
+			names [i] = name;
+			hashes[i] = oldHashes[k];
+		}
+	}
+	
+	private static final int mix(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+	
+	private static final boolean equals(String name, char[] chars, int off, int len) {
+		if((name.length() != len))
+			return false;
+		for(int i = 0; i < len; ++i) {
+			if((name.charAt(i) != chars[off + i]))
+				return false;
+		}
+		return true;
+	}
+}
\ No newline at end of file
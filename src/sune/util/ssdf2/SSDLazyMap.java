@@ -0,0 +1,133 @@
+package sune.util.ssdf2;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Map of nodes of a lazily read collection. The content of the collection
+ * is parsed the first time the map is accessed, nested collections are again
+ * read lazily. Until then only the position of the content is held, along
+ * with the whole content it is part of.*/
+final class SSDLazyMap implements Map<String, SSDNode> {
+	
+	// The reader of the content the collection is part of
+	private SSDReader reader;
+	private SSDReader.Range range;
+	// The collection this map belongs to
+	private SSDCollection owner;
+	// The parsed nodes
+	private volatile Map<String, SSDNode> data;
+	
+	SSDLazyMap(SSDReader reader, SSDReader.Range range) {
+		this.reader = reader;
+		this.range  = range;
+	}
+	
+	void setOwner(SSDCollection owner) {
+		this.owner = owner;
+	}
+	
+	boolean isMaterialized() {
+		return data != null;
+	}
+	
+	private final Map<String, SSDNode> data() {
+		Map<String, SSDNode> map;
+		if((map = data) == null) {
+			synchronized(this) {
+				if((map = data) == null) {
+					SSDCollection coll = SSDParser.parseLazy(reader.rangeOf(range));
+					map = coll != null ? coll.objectMap() : new LinkedHashMap<>();
+					// Move the parsed nodes to the owner collection
+					for(SSDNode node : map.values()) {
+						if((node instanceof SSDCollection))
+							((SSDCollection) node).parent = owner;
+						else if((node instanceof SSDObject))
+							((SSDObject) node).parent = owner;
+					}
+					data   = map;
+					reader = null;
+					range  = null;
+				}
+			}
+		}
+		return map;
+	}
+	
+	@Override
+	public int size() {
+		return data().size();
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return data().isEmpty();
+	}
+	
+	@Override
+	public boolean containsKey(Object key) {
+		return data().containsKey(key);
+	}
+	
+	@Override
+	public boolean containsValue(Object value) {
+		return data().containsValue(value);
+	}
+	
+	@Override
+	public SSDNode get(Object key) {
+		return data().get(key);
+	}
+	
+	@Override
+	public SSDNode put(String key, SSDNode value) {
+		return data().put(key, value);
+	}
+	
+	@Override
+	public SSDNode remove(Object key) {
+		return data().remove(key);
+	}
+	
+	@Override
+	public void putAll(Map<? extends String, ? extends SSDNode> m) {
+		data().putAll(m);
+	}
+	
+	@Override
+	public void clear() {
+		data().clear();
+	}
+	
+	@Override
+	public Set<String> keySet() {
+		return data().keySet();
+	}
+	
+	@Override
+	public Collection<SSDNode> values() {
+		return data().values();
+	}
+	
+	@Override
+	public Set<Entry<String, SSDNode>> entrySet() {
+		return data().entrySet();
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		return data().equals(obj);
+	}
+	
+	@Override
+	public int hashCode() {
+		return data().hashCode();
+	}
+	
+	@Override
+	public String toString() {
+		return data().toString();
+	}
+}
\ No newline at end of file
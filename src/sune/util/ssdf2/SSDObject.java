@@ -14,6 +14,7 @@ import static sune.util.ssdf2.SSDF.WORD_VARIABLE_THIS;
 import static sune.util.ssdf2.SSDF.WORD_VARIABLE_VALUE;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -24,48 +25,58 @@ import java.util.regex.Pattern;
 public class SSDObject implements SSDNode {
 	
 	// Protected properties
-	protected final SSDProperty<SSDNode> parent;
-	protected final SSDProperty<String>  name;
+	protected SSDNode parent;
+	protected String  name;
 	
 	// Private properties
 	private final SSDType  type;
+	// Formatted value, that also holds the text of the value, if it differs
 	private final SSDValue value;
-	// Formatted value
-	private final SSDValue fvalue;
 	
-	// Annotations
-	private final Set<SSDAnnotation> annotations;
+	// Annotations, created when the first one is added
+	private Set<SSDAnnotation> annotations;
 	
-	// Comments
-	private final Set<SSDComment> comments;
+	// Comments, created when the first one is added
+	private Set<SSDComment> comments;
+	
+	// Whether the object is a part of a frozen collection
+	private boolean frozen;
 	
 	SSDObject(SSDNode parent, String name, String value) {
-		SSDType type  = SSDType.recognize(value);
-		SSDValue val  = new SSDValue(compress(value));
-		SSDValue fval = type.format(value);
-		checkArgs(name, type, fval);
-		this.parent = new SSDProperty<>(parent);
-		this.name 	= new SSDProperty<>(name);
-		this.type 	= type;
-		this.value	= val;
-		this.fvalue = fval;
-		// Annotations
-		this.annotations = new LinkedHashSet<>();
-		// Comments
-		this.comments = new LinkedHashSet<>();
+		this(parent, name, value, true);
+	}
+	
+	SSDObject(SSDNode parent, String name, String value, boolean compress) {
+		this(parent, name, value, compress, SSDType.recognize(value));
+	}
+	
+	SSDObject(SSDNode parent, String name, String value, boolean compress, SSDType type) {
+		this(parent, name, type, SSDValue.withText(type.format(value),
+		                                           compress ? compress(value) : value));
 	}
 	
-	SSDObject(SSDNode parent, String name, SSDType type, SSDValue value, SSDValue fvalue) {
+	SSDObject(SSDNode parent, String name, SSDType type, SSDValue value) {
 		checkArgs(name, type, value);
-		this.parent = new SSDProperty<>(parent);
-		this.name 	= new SSDProperty<>(name);
+		this.parent = parent;
+		this.name 	= name;
 		this.type 	= type;
 		this.value 	= value;
-		this.fvalue = fvalue;
-		// Annotations
-		this.annotations = new LinkedHashSet<>();
-		// Comments
-		this.comments = new LinkedHashSet<>();
+	}
+	
+	// Objects of primitive values hold their values by themselves
+	SSDObject(SSDNode parent, String name, SSDType type) {
+		// Primitive values are never null
+		checkArgs(name, type, SSDValue.NULL);
+		this.parent = parent;
+		this.name 	= name;
+		this.type 	= type;
+		this.value 	= null;
+	}
+	
+	void checkIfMutable() {
+		if((frozen)) {
+			throw new UnsupportedOperationException("SSDObject is frozen");
+		}
 	}
 	
 	static final void checkArgs(String name, SSDType type, SSDValue value) {
@@ -125,33 +136,38 @@ public class SSDObject implements SSDNode {
 	
 	void addAnnotations0(Set<SSDAnnotation> anns) {
 		if((anns != null)) {
-			for(SSDAnnotation a : anns) {
-				a.parent.set(this);
-				annotations.add(a);
-			}
+			for(SSDAnnotation a : anns)
+				addAnnotation0(a);
 		}
 	}
 	
 	void addAnnotation0(SSDAnnotation ann) {
 		if((ann != null)) {
-			ann.parent.set(this);
+			ann.parent = this;
+			if((annotations == null))
+				annotations = new LinkedHashSet<>();
 			annotations.add(ann);
 		}
 	}
 	
 	// Annotations
 	Set<SSDAnnotation> annotations() {
-		return annotations;
+		return annotations != null ? annotations : Collections.<SSDAnnotation>emptySet();
+	}
+	
+	// Comments
+	Set<SSDComment> comments() {
+		return comments != null ? comments : Collections.<SSDComment>emptySet();
 	}
 	
 	@Override
 	public SSDNode getParent() {
-		return parent.get();
+		return parent;
 	}
 	
 	@Override
 	public String getName() {
-		return name.get();
+		return name;
 	}
 	
 	@Override
@@ -168,27 +184,33 @@ public class SSDObject implements SSDNode {
 	}
 	
 	public SSDValue getValue() {
-		return value;
+		return value.written();
 	}
 	
 	public SSDValue getFormattedValue() {
-		return fvalue;
+		return value;
+	}
+	
+	// Text of the value as it is written
+	String text() {
+		return value.text();
 	}
 	
-	public boolean booleanValue() { return fvalue.booleanValue(); }
-	public byte byteValue()       { return fvalue.byteValue();    }
-	public short shortValue()     { return fvalue.shortValue();   }
-	public int intValue()         { return fvalue.intValue();     }
-	public long longValue()       { return fvalue.longValue();    }
-	public float floatValue()     { return fvalue.floatValue();   }
-	public double doubleValue()   { return fvalue.doubleValue();  }
-	public String stringValue()   { return fvalue.stringValue();  }
-	public Object value()         { return fvalue.value();        }
+	public boolean booleanValue() { return value.booleanValue(); }
+	public byte byteValue()       { return value.byteValue();    }
+	public short shortValue()     { return value.shortValue();   }
+	public int intValue()         { return value.intValue();     }
+	public long longValue()       { return value.longValue();    }
+	public float floatValue()     { return value.floatValue();   }
+	public double doubleValue()   { return value.doubleValue();  }
+	public String stringValue()   { return value.stringValue();  }
+	public Object value()         { return value.value();        }
 	
 	@Override
 	public void addAnnotation(SSDAnnotation annotation) {
+		checkIfMutable();
 		// Call the internal method
-		addAnnotation0(annotation);
+		addAnnotation0(annotation != null ? SSDCollection.thawed(annotation) : null);
 	}
 	
 	@Override
@@ -198,7 +220,8 @@ public class SSDObject implements SSDNode {
 	
 	@Override
 	public void removeAnnotation(String name) {
-		for(Iterator<SSDAnnotation> i = annotations.iterator();
+		checkIfMutable();
+		for(Iterator<SSDAnnotation> i = annotations().iterator();
 				i.hasNext();) {
 			SSDAnnotation ann = i.next();
 			if(ann.getName()	.equals(name) ||
@@ -209,12 +232,13 @@ public class SSDObject implements SSDNode {
 	
 	@Override
 	public void removeAnnotation(SSDAnnotation annotation) {
+		checkIfMutable();
 		// Just remove the annotation
-		annotations.remove(annotation);
+		annotations().remove(annotation);
 	}
 	
 	void removeAnnotationEq(SSDAnnotation annotation) {
-		for(SSDAnnotation ann : annotations) {
+		for(SSDAnnotation ann : annotations()) {
 			if((ann.equals(annotation))) {
 				removeAnnotation(ann);
 				return; // Should be only one
@@ -224,7 +248,7 @@ public class SSDObject implements SSDNode {
 	
 	@Override
 	public SSDAnnotation getAnnotation(String name) {
-		for(SSDAnnotation ann : annotations)
+		for(SSDAnnotation ann : annotations())
 			if(ann.getName().equals(name))
 				return ann;
 		return null;
@@ -232,13 +256,14 @@ public class SSDObject implements SSDNode {
 	
 	@Override
 	public SSDAnnotation[] getAnnotations() {
-		return annotations.toArray(new SSDAnnotation[annotations.size()]);
+		Set<SSDAnnotation> anns = annotations();
+		return anns.toArray(new SSDAnnotation[anns.size()]);
 	}
 	
 	@Override
 	public SSDAnnotation[] getAnnotations(String name) {
 		List<SSDAnnotation> list = new ArrayList<>();
-		for(SSDAnnotation ann : annotations)
+		for(SSDAnnotation ann : annotations())
 			if(ann.getName().equals(name))
 				list.add(ann);
 		return list.toArray(new SSDAnnotation[list.size()]);
@@ -246,26 +271,51 @@ public class SSDObject implements SSDNode {
 	
 	@Override
 	public void addComment(SSDComment comment) {
+		checkIfMutable();
+		if((comments == null))
+			comments = new LinkedHashSet<>();
 		comments.add(comment);
 	}
 	
 	@Override
 	public void removeComment(SSDComment comment) {
-		comments.remove(comment);
+		checkIfMutable();
+		comments().remove(comment);
 	}
 	
 	@Override
 	public SSDComment[] getComments() {
-		return comments.toArray(new SSDComment[comments.size()]);
+		Set<SSDComment> cmts = comments();
+		return cmts.toArray(new SSDComment[cmts.size()]);
 	}
 	
 	@Override
 	public SSDObject copy() {
+		// The value cannot be changed, therefore it can be shared
 		return new SSDObject(getParent(),
 		                     getName(),
 		                     getType(),
-		                     new SSDValue(value .value()),
-		                     new SSDValue(fvalue.value()));
+		                     value);
+	}
+	
+	/**
+	 * Creates a deep copy of this object that has the given parent, including
+	 * its annotations and comments. A frozen copy cannot be modified.*/
+	final SSDObject copy(SSDNode parent, boolean frozen) {
+		SSDObject copy = newCopy(parent, frozen);
+		copy.annotations = SSDCollection.copyAnnotations(annotations, copy, frozen);
+		copy.comments 	 = SSDCollection.copyComments(comments, frozen);
+		copy.frozen 	 = frozen;
+		return copy;
+	}
+	
+	// Creates a copy of this object without any annotations and comments
+	SSDObject newCopy(SSDNode parent, boolean frozen) {
+		return new SSDObject(parent, name, type, value);
+	}
+	
+	public boolean isFrozen() {
+		return frozen;
 	}
 	
 	@Override
@@ -274,13 +324,15 @@ public class SSDObject implements SSDNode {
 				|| !(obj instanceof SSDObject)))
 			return false;
 		SSDObject o = (SSDObject) obj;
-		if(!o.name.get().equals(name.get()))
+		if(!o.name.equals(name))
 			return false;
 		if((o.type != type))
 			return false;
-		if(!o.value .value().equals(value .value()))
+		if(!o.text().equals(text()))
 			return false;
-		if(!o.fvalue.value().equals(fvalue.value()))
+		// Objects of primitive values are formatted the same as written
+		if((o.value != null && value != null
+				&& !o.value.value().equals(value.value())))
 			return false;
 		// All good, both objects contains the same stuff
 		return true;
@@ -415,8 +467,9 @@ public class SSDObject implements SSDNode {
 	
 	String toString(int depth, boolean compress, boolean json, boolean invoke,
 			boolean info, boolean comments) {
-		if((value == null)) return WORD_NULL;
-		String sval = value.toString();
+		// Text of a primitive value is never formatted
+		if((value == null)) return text();
+		String sval = value.text();
 		if(invoke && getType() == SSDType.STRING_VAR) {
 			StringBuilder sb = new StringBuilder();
 			StringBuilder tm = new StringBuilder();
@@ -0,0 +1,122 @@
+package sune.util.ssdf2;
+
+/**
+ * Options of reading of a content. The features that are not needed can be
+ * turned off, they are then not processed at all while reading. Instances
+ * are immutable and are created using a {@linkplain Builder}.*/
+public final class SSDParseOptions {
+	
+	/**
+	 * Options with all the features turned on.*/
+	public static final SSDParseOptions DEFAULT = builder().build();
+	
+	private final boolean discardComments;
+	private final boolean discardAnnotations;
+	private final boolean functionsAsLiterals;
+	private final boolean strictJson;
+	private final boolean noVariables;
+	private final boolean stringSlices;
+	
+	private SSDParseOptions(Builder builder) {
+		this.discardComments 	 = builder.discardComments;
+		this.discardAnnotations  = builder.discardAnnotations;
+		this.functionsAsLiterals = builder.functionsAsLiterals;
+		this.strictJson 		 = builder.strictJson;
+		this.noVariables 		 = builder.noVariables;
+		this.stringSlices 		 = builder.stringSlices;
+	}
+	
+	public static final Builder builder() {
+		return new Builder();
+	}
+	
+	/**
+	 * Whether the comments are skipped, no comments are then added to nodes.*/
+	public boolean isDiscardComments() {
+		return discardComments;
+	}
+	
+	/**
+	 * Whether the annotations are skipped, no annotations are then added to
+	 * nodes. The Namespace annotations still apply to function calls.*/
+	public boolean isDiscardAnnotations() {
+		return discardAnnotations;
+	}
+	
+	/**
+	 * Whether the function calls are read as values of their own text, the
+	 * functions are then not looked up at all.*/
+	public boolean isFunctionsAsLiterals() {
+		return functionsAsLiterals;
+	}
+	
+	/**
+	 * Whether the content is read as JSON, all the other options then do not
+	 * apply, since JSON has no comments, annotations, functions, nor variables.*/
+	public boolean isStrictJson() {
+		return strictJson;
+	}
+	
+	/**
+	 * Whether the values are not checked for variables and concatenations,
+	 * values that are not of a basic type are then of the unknown type.*/
+	public boolean isNoVariables() {
+		return noVariables;
+	}
+	
+	/**
+	 * Whether the string values are views of the read content, instead of
+	 * copies. The content is then retained as long as any of the values is,
+	 * the strings are copied and unescaped only when they are accessed. Applies
+	 * only to contents that are read whole, i.e. strings and files.*/
+	public boolean isStringSlices() {
+		return stringSlices;
+	}
+	
+	public static final class Builder {
+		
+		private boolean discardComments;
+		private boolean discardAnnotations;
+		private boolean functionsAsLiterals;
+		private boolean strictJson;
+		private boolean noVariables;
+		private boolean stringSlices;
+		
+		private Builder() {
+		}
+		
+		public Builder discardComments(boolean discardComments) {
+			this.discardComments = discardComments;
+			return this;
+		}
+		
+		public Builder discardAnnotations(boolean discardAnnotations) {
+			this.discardAnnotations = discardAnnotations;
+			return this;
+		}
+		
+		public Builder functionsAsLiterals(boolean functionsAsLiterals) {
+			this.functionsAsLiterals = functionsAsLiterals;
+			return this;
+		}
+		
+		public Builder strictJson(boolean strictJson) {
+			this.strictJson = strictJson;
+			return this;
+		}
+		
+		public Builder noVariables(boolean noVariables) {
+			this.noVariables = noVariables;
+			return this;
+		}
+		
+		public Builder stringSlices(boolean stringSlices) {
+			this.stringSlices = stringSlices;
+			return this;
+		}
+		
+		public SSDParseOptions build() {
+			return new SSDParseOptions(this);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,335 @@
+package sune.util.ssdf2;
+
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builder of the tree of nodes from the events of a {@linkplain SSDReader}.
+ * The produced data structure is the same as the one produced by the former
+ * format-then-read approach.*/
+final class SSDParser {
+	
+	// Parser of each thread that is reused by the subsequent calls
+	private static final ThreadLocal<SSDParser> LOCAL = ThreadLocal.withInitial(SSDParser::new);
+	// Maximum size of the buffer of characters that is kept by a parser
+	private static final int RETAINED_BUFFER_SIZE = 1 << 16;
+	
+	private final SSDReader reader;
+	// Annotations for current object/collection
+	private final Deque<SSDAnnotation> anns = new ArrayDeque<>();
+	// Holds all parents, the first element represents the current parent
+	// which will be later saved into the 'parent' variable
+	private final Deque<SSDNode> parents = new ArrayDeque<>();
+	private SSDNode parent;
+	private final Deque<SSDComment> comments = new ArrayDeque<>();
+	private final Deque<SSDAnnotation> annsh = new ArrayDeque<>();
+	// Buffer of characters of the content, reused by the subsequent calls
+	private char[] chars;
+	// Whether the parser is currently used, i.e. the call is reentrant
+	private boolean busy;
+	
+	private SSDParser(SSDReader reader) {
+		this.reader = reader;
+	}
+	
+	private SSDParser() {
+		this(new SSDReader());
+	}
+	
+	private static final SSDParser local() {
+		SSDParser parser = LOCAL.get();
+		// The parser can be used again by the same thread, e.g. when a class
+		// of a function is initialized, in that case use a new one
+		return parser.busy ? new SSDParser() : parser;
+	}
+	
+	/**
+	 * Parses the given content using the parser of the current thread. All the
+	 * temporary objects and buffers of the parser are reused, therefore only the
+	 * resulting nodes are allocated.*/
+	static final SSDCollection parse(String content, SSDParseOptions options) {
+		int length = content.length();
+		if((length == 0))
+			return null;
+		SSDParser parser = local();
+		char[] chars = parser.chars;
+		if((chars == null || chars.length < length)) {
+			chars = new char[length];
+			if((length <= RETAINED_BUFFER_SIZE))
+				parser.chars = chars;
+		}
+		content.getChars(0, length, chars, 0);
+		parser.reader.reset(chars, 0, length).options(options);
+		// The characters are at the same positions as in the content
+		if((options.isStringSlices()))
+			parser.reader.retain(content);
+		return parser.reuse();
+	}
+	
+	/**
+	 * Parses the given stream using the parser of the current thread. All the
+	 * temporary objects and buffers of the parser are reused, therefore only the
+	 * resulting nodes are allocated.*/
+	static final SSDCollection parse(InputStream stream, SSDParseOptions options) {
+		SSDParser parser = local();
+		parser.reader.reset(stream).options(options);
+		return parser.reuse();
+	}
+	
+	private final SSDCollection reuse() {
+		busy = true;
+		try {
+			return build();
+		} finally {
+			// Do not reference the content and the nodes anymore
+			reader.release();
+			anns	.clear();
+			parents .clear();
+			comments.clear();
+			annsh	.clear();
+			parent = null;
+			busy   = false;
+		}
+	}
+	
+	static final SSDCollection parse(SSDReader reader) {
+		return new SSDParser(reader).build();
+	}
+	
+	/**
+	 * Parses the content of the given reader lazily. Only the main collection
+	 * is parsed, nested collections are parsed the first time they are
+	 * accessed. The reader has to have the whole content in memory.*/
+	static final SSDCollection parseLazy(SSDReader reader) {
+		return new SSDParser(reader.lazy(true)).build();
+	}
+	
+	// Minimum length of a content to be parsed in parallel
+	private static final int PARALLEL_MIN_LENGTH = 1 << 16;
+	// Number of batches of items per a thread of a pool
+	private static final int PARALLEL_BATCHES 	 = 4;
+	
+	/**
+	 * Parses the content of the given reader in parallel, if the main
+	 * collection is a large array. The items of the array are split into
+	 * batches that are parsed in the given pool and then joined in order.
+	 * Other contents are parsed sequentially.*/
+	static final SSDCollection parseParallel(SSDReader reader, int length, ForkJoinPool pool) {
+		int[] marks;
+		if((length < PARALLEL_MIN_LENGTH
+				|| (marks = reader.scanArray()) == null
+				|| marks.length <= 2)) {
+			return parse(reader.restart());
+		}
+		// Select the delimiters at which the array will be split
+		int   count   = Math.min(marks.length - 1, pool.getParallelism() * PARALLEL_BATCHES);
+		int[] batches = new int[count + 1];
+		int   start   = marks[0];
+		int   size    = marks[marks.length - 1] - start;
+		int   nbatch  = 1;
+		for(int i = 1, l = marks.length - 1, k = 1; i < l && k < count; ++i) {
+			if((marks[i] - start >= (long) size * k / count)) {
+				batches[nbatch++] = i;
+				++k;
+			}
+		}
+		batches[nbatch++] = marks.length - 1;
+		// The main array with comments that precede it
+		SSDCollection main = parse(reader.arrayOf(reader.contentStart(), marks[0] + 1, false));
+		List<SSDNode> items;
+		if((main == null
+				|| (items = pool.invoke(new ParseTask(reader, marks, batches, 0, nbatch - 1))) == null)) {
+			// Some of the batches are not valid on their own
+			return parse(reader.restart());
+		}
+		for(SSDNode item : items)
+			main.setDirect(SSDInterner.index(main.nextIndex()), null, item);
+		return main;
+	}
+	
+	private final SSDCollection build() {
+		SSDReader r = reader;
+		while(r.hasNext()) {
+			switch(r.next()) {
+				case COMMENT:
+					comments.push(r.comment());
+					break;
+				case ANNOTATION:
+					beginAnnotation(r.name());
+					break;
+				case FUNCTION_CALL:
+					beginFunctionCall(r.name(), r.value());
+					break;
+				case START_OBJECT:
+					beginCollection(r.name(), false);
+					break;
+				case START_ARRAY:
+					beginCollection(r.name(), true);
+					break;
+				case VALUE:
+					addValue(r.name(), r.number() != null || r.slice() != null ? null : r.value(),
+					         r.flag(), r.type(), r.number(), r.slice());
+					break;
+				case END:
+					SSDCollection main;
+					if((main = endParent(r.flag())) != null)
+						return main;
+					break;
+				default:
+					// Names are also part of the other events
+					break;
+			}
+		}
+		// Error, bad formatting, or whatever else happened
+		return null;
+	}
+	
+	private final Deque<SSDAnnotation> pollAnnotations() {
+		// Add all the gotten annotations
+		int ai = reader.annotations();
+		annsh.clear(); // Clear the helper deque
+		while(--ai >= 0) annsh.push(anns.pop());
+		// Annotations are gotten in reversed order, the helper deque
+		// contains them in the correct order
+		return annsh;
+	}
+	
+	private final void addComments(SSDNode node) {
+		// Add all the gotten comments
+		while(!comments.isEmpty()) {
+			node.addComment(comments.pollLast());
+		}
+	}
+	
+	private final void beginAnnotation(String name) {
+		// Create the annoation object first
+		SSDAnnotation annObj = new SSDAnnotation(name);
+		addComments(annObj);
+		// Add the annotation object
+		anns.push(annObj);
+		// Add the annotation object to the parents, annotations without
+		// any items are closed right away
+		parents.push(annObj);
+		parent = annObj;
+	}
+	
+	private final void beginFunctionCall(String name, String funcName) {
+		// Create a function call
+		SSDFunctionCall fc = new SSDFunctionCall(parent, name, funcName);
+		// Add the function call to the parents
+		parents.push(fc);
+		for(SSDAnnotation a : pollAnnotations())
+			fc.addAnnotation0(a);
+		// Set the current parent
+		parent = fc;
+	}
+	
+	private final void beginCollection(String name, boolean isarr) {
+		// Create a new collection with the given name
+		SSDCollection arr;
+		if((parents.isEmpty())) {
+			// If no main object has been yet added, add one
+			arr = new SSDCollection(parent, isarr);
+		} else if((reader.range() != null)) {
+			// Add a lazily read array or object
+			SSDLazyMap map = new SSDLazyMap(reader, reader.range());
+			arr = new SSDCollection(parent, name, isarr, map, null, null);
+			map.setOwner(arr);
+		} else {
+			// Add a regular array or object
+			arr = new SSDCollection(parent, name, isarr);
+		}
+		// Add the object to the parents
+		parents.push(arr);
+		for(SSDAnnotation a : pollAnnotations())
+			arr.addAnnotation0(a);
+		addComments(arr);
+		SSDF.addToParent(parent, name, arr);
+		// Set the current parent
+		parent = arr;
+	}
+	
+	private final void addValue(String name, String value, boolean compress, SSDType type,
+			SSDValue number, SSDSlice slice) {
+		// The value has already been formatted, unless there is
+		// a character that would be removed by the formatting. Numbers
+		// have already been parsed and are the same when formatted.
+		// Slices are formatted only when their strings are needed.
+		SSDObject obj = number != null ? SSDPrimitive.of(parent, name, type, number) :
+						slice  != null ? new SSDObject(parent, name, type, SSDValue.string(slice)) :
+										 SSDPrimitive.of(parent, name, value, compress, type);
+		for(SSDAnnotation a : pollAnnotations())
+			obj.addAnnotation0(a);
+		addComments(obj);
+		SSDF.addToParent(parent, name, obj);
+	}
+	
+	private final SSDCollection endParent(boolean addFunction) {
+		// Remove the currently used parent
+		SSDNode par = parents.pop();
+		// The main object was removed
+		if((parents.isEmpty()
+				&& par.getName() == null)) {
+			// Return the main object
+			return (SSDCollection) par;
+		}
+		// Add the constructed function
+		if((addFunction)) {
+			SSDFunctionCall func 	 = (SSDFunctionCall) par;
+			String			funcName = func.getName();
+			SSDF.addToParent(parents.peek(), funcName, func);
+		}
+		// Set the current parent
+		parent = parents.peek();
+		return null;
+	}
+	
+	private static final class ParseTask extends RecursiveTask<List<SSDNode>> {
+		
+		private static final long serialVersionUID = 6316914473102926712L;
+		
+		private final SSDReader reader;
+		private final int[] marks;
+		private final int[] batches;
+		private final int from;
+		private final int to;
+		
+		ParseTask(SSDReader reader, int[] marks, int[] batches, int from, int to) {
+			this.reader  = reader;
+			this.marks   = marks;
+			this.batches = batches;
+			this.from 	 = from;
+			this.to 	 = to;
+		}
+		
+		@Override
+		protected List<SSDNode> compute() {
+			if((to - from == 1)) {
+				// Parse the items between the two delimiters as an array, the item
+				// delimiter is included since it changes the reading state
+				int start = batches[from] == 0
+								? marks[0] + 1
+								: marks[batches[from]];
+				int end   = marks[batches[to]];
+				SSDCollection array = parse(reader.arrayOf(start, end, true));
+				return array != null && array.getType() == SSDCollectionType.ARRAY
+							? new ArrayList<>(array.objectMap().values())
+							: null;
+			}
+			int mid = (from + to) >>> 1;
+			ParseTask left = new ParseTask(reader, marks, batches, from, mid);
+			left.fork();
+			List<SSDNode> right = new ParseTask(reader, marks, batches, mid, to).compute();
+			List<SSDNode> items = left.join();
+			if((items == null || right == null))
+				return null;
+			items.addAll(right);
+			return items;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,445 @@
+package sune.util.ssdf2;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Map of nodes of a persistent collection. The nodes are stored in a hash array
+ * mapped trie, whose nodes are never modified. A change of the map creates new
+ * nodes of the trie only on the path to the changed node, all the other nodes
+ * are shared, therefore a copy of the map shares the whole trie and is created
+ * in a constant time. The nodes keep the order in which they have been put.
+ * <br><br>
+ * The nodes themselves are shared by the copies as well. Each map has its
+ * version, that is changed whenever the map is copied, and each leaf of the trie
+ * has the version of the map that has put it. Nodes of leaves of other versions
+ * are copied, once they are got, so that their changes, including the changes
+ * of their annotations, are not seen by the other copies.<br><br>
+ * Any number of threads can copy and get the nodes of a map at once, while
+ * there is no thread that changes it.*/
+final class SSDPersistentMap extends AbstractMap<String, SSDNode> {
+	
+	// Number of bits of a hash used by a level of the trie
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	
+	private static final Comparator<Leaf> ORDER = (a, b) -> Integer.compare(a.order, b.order);
+	
+	private static final AtomicReferenceFieldUpdater<SSDPersistentMap, Object> ROOT
+		= AtomicReferenceFieldUpdater.newUpdater(SSDPersistentMap.class, Object.class, "root");
+	
+	// The root of the trie, either a branch, a collision, a leaf, or null
+	private volatile Object root;
+	private int    size;
+	// Order of the next new node
+	private int    order;
+	// Leaves in the order of their nodes, created when the map is iterated
+	private volatile Leaf[] ordered;
+	// The collection this map belongs to
+	private SSDCollection owner;
+	// Nodes of leaves of other versions than this one are shared
+	private volatile Object version = new Object();
+	
+	SSDPersistentMap() {
+	}
+	
+	private SSDPersistentMap(SSDPersistentMap map) {
+		this.root 	 = map.root;
+		this.size 	 = map.size;
+		this.order 	 = map.order;
+		this.ordered = map.ordered;
+	}
+	
+	void setOwner(SSDCollection owner) {
+		this.owner = owner;
+	}
+	
+	/**
+	 * Creates a copy of this map that shares all the nodes. The nodes are then
+	 * shared by both the maps, i.e. they are copied by either of the maps, once
+	 * they are got. The copy has a version of its own.*/
+	SSDPersistentMap copy() {
+		SSDPersistentMap copy = new SSDPersistentMap(this);
+		// The version is renewed once the trie has been taken, so that nodes
+		// got by other threads meantime are never owned by both the maps
+		version = new Object();
+		return copy;
+	}
+	
+	/**
+	 * Gets a copy of the given collection, that can be put into this map.
+	 * Persistent collections are copied in a constant time, other collections
+	 * are copied as persistent collections.*/
+	SSDCollection adopt(SSDCollection collection) {
+		return collection.isPersistent()
+					? collection.copy()
+					: collection.copy(null, false, (a) -> new SSDPersistentMap());
+	}
+	
+	// Gets the node of the given leaf, nodes of other versions are copied and
+	// the copies are put into the trie instead of them
+	private final SSDNode own(Leaf leaf) {
+		for(Object version = this.version;;) {
+			SSDNode node = leaf.getValue();
+			if((leaf.version == version))
+				return node;
+			SSDNode copy = ownCopy(node);
+			Object  prev = root;
+			Object  next = put(prev, new Leaf(leaf.getKey(), leaf.hash, leaf.order, copy, version), 0);
+			if((ROOT.compareAndSet(this, prev, next))) {
+				ordered = null;
+				return copy;
+			}
+			// Other thread has got the node in the meantime, its copy is used
+			if((leaf = find(root, leaf.getKey(), leaf.hash)) == null)
+				return node;
+		}
+	}
+	
+	// Copies of persistent collections share the trie of the collection, that
+	// is not changed, since the collection is not owned by any version anymore
+	private final SSDNode ownCopy(SSDNode node) {
+		if(!(node instanceof SSDCollection))
+			return ((SSDObject) node).copy(owner, false);
+		SSDCollection coll = (SSDCollection) node;
+		Map<String, SSDNode> map = coll.objectMap();
+		return map instanceof SSDPersistentMap
+					? coll.share(owner, new SSDPersistentMap((SSDPersistentMap) map))
+					: coll.copy(owner, false);
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof String
+					&& find(root, (String) key, key.hashCode()) != null;
+	}
+	
+	@Override
+	public SSDNode get(Object key) {
+		if(!(key instanceof String))
+			return null;
+		Leaf leaf = find(root, (String) key, key.hashCode());
+		return leaf != null ? own(leaf) : null;
+	}
+	
+	@Override
+	public SSDNode put(String key, SSDNode value) {
+		int  hash = key.hashCode();
+		Leaf prev = find(root, key, hash);
+		root 	= put(root, new Leaf(key, hash, prev != null ? prev.order : order++, value, version), 0);
+		ordered = null;
+		if((prev == null)) {
+			++size;
+			return null;
+		}
+		return prev.getValue();
+	}
+	
+	@Override
+	public SSDNode remove(Object key) {
+		if(!(key instanceof String))
+			return null;
+		String name = (String) key;
+		int    hash = name.hashCode();
+		Leaf   prev = find(root, name, hash);
+		if((prev == null))
+			return null;
+		root 	= remove(root, name, hash, 0);
+		ordered = null;
+		--size;
+		return prev.getValue();
+	}
+	
+	@Override
+	public void clear() {
+		root 	= null;
+		size 	= 0;
+		order 	= 0;
+		ordered = null;
+	}
+	
+	private static final int index(int hash, int shift) {
+		return (hash >>> shift) & MASK;
+	}
+	
+	private static final Leaf find(Object node, String key, int hash) {
+		for(int shift = 0;; shift += BITS) {
+			if((node instanceof Branch)) {
+				Branch branch = (Branch) node;
+				int bit = 1 << index(hash, shift);
+				if((branch.bitmap & bit) == 0)
+					return null;
+				node = branch.nodes[Integer.bitCount(branch.bitmap & (bit - 1))];
+			} else if((node instanceof Leaf)) {
+				Leaf leaf = (Leaf) node;
+				return leaf.hash == hash && leaf.getKey().equals(key) ? leaf : null;
+			} else if((node instanceof Collision)) {
+				Collision coll = (Collision) node;
+				if((coll.hash == hash)) {
+					for(Leaf leaf : coll.leaves) {
+						if((leaf.getKey().equals(key)))
+							return leaf;
+					}
+				}
+				return null;
+			} else {
+				return null;
+			}
+		}
+	}
+	
+	private static final Object put(Object node, Leaf leaf, int shift) {
+		if((node == null))
+			return leaf;
+		if((node instanceof Branch)) {
+			Branch branch = (Branch) node;
+			Object[] nodes = branch.nodes;
+			int bit = 1 << index(leaf.hash, shift);
+			int idx = Integer.bitCount(branch.bitmap & (bit - 1));
+			if((branch.bitmap & bit) == 0) {
+				Object[] copy = new Object[nodes.length + 1];
+				System.arraycopy(nodes, 0, copy, 0, idx);
+				System.arraycopy(nodes, idx, copy, idx + 1, nodes.length - idx);
+				copy[idx] = leaf;
+				return new Branch(branch.bitmap | bit, copy);
+			}
+			Object[] copy = nodes.clone();
+			copy[idx] = put(nodes[idx], leaf, shift + BITS);
+			return new Branch(branch.bitmap, copy);
+		}
+		if((node instanceof Leaf)) {
+			Leaf prev = (Leaf) node;
+			if((prev.hash != leaf.hash))
+				return merge(node, prev.hash, leaf, shift);
+			if((prev.getKey().equals(leaf.getKey())))
+				return leaf;
+			return new Collision(leaf.hash, new Leaf[] { prev, leaf });
+		}
+		Collision coll = (Collision) node;
+		if((coll.hash != leaf.hash))
+			return merge(node, coll.hash, leaf, shift);
+		Leaf[] leaves = coll.leaves;
+		for(int i = 0; i < leaves.length; ++i) {
+			if((leaves[i].getKey().equals(leaf.getKey()))) {
+				Leaf[] copy = leaves.clone();
+				copy[i] = leaf;
+				return new Collision(leaf.hash, copy);
+			}
+		}
+		Leaf[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+		copy[leaves.length] = leaf;
+		return new Collision(leaf.hash, copy);
+	}
+	
+	// Creates a branch of the given node and leaf, whose hashes differ
+	private static final Branch merge(Object node, int hash, Leaf leaf, int shift) {
+		int i = index(hash, shift), j = index(leaf.hash, shift);
+		if((i == j))
+			return new Branch(1 << i, new Object[] { merge(node, hash, leaf, shift + BITS) });
+		return new Branch((1 << i) | (1 << j),
+		                  i < j ? new Object[] { node, leaf }
+		                        : new Object[] { leaf, node });
+	}
+	
+	// Removes the leaf of the given key, that must be present
+	private static final Object remove(Object node, String key, int hash, int shift) {
+		if((node instanceof Branch)) {
+			Branch branch = (Branch) node;
+			Object[] nodes = branch.nodes;
+			int bit = 1 << index(hash, shift);
+			int idx = Integer.bitCount(branch.bitmap & (bit - 1));
+			Object child = remove(nodes[idx], key, hash, shift + BITS);
+			if((child != null)) {
+				// A single leaf or collision is found without the branch
+				if((nodes.length == 1 && !(child instanceof Branch)))
+					return child;
+				Object[] copy = nodes.clone();
+				copy[idx] = child;
+				return new Branch(branch.bitmap, copy);
+			}
+			if((nodes.length == 1))
+				return null;
+			if((nodes.length == 2 && !(nodes[idx ^ 1] instanceof Branch)))
+				return nodes[idx ^ 1];
+			Object[] copy = new Object[nodes.length - 1];
+			System.arraycopy(nodes, 0, copy, 0, idx);
+			System.arraycopy(nodes, idx + 1, copy, idx, copy.length - idx);
+			return new Branch(branch.bitmap & ~bit, copy);
+		}
+		if((node instanceof Collision)) {
+			Collision coll = (Collision) node;
+			Leaf[] leaves = coll.leaves;
+			if((leaves.length == 2))
+				return leaves[0].getKey().equals(key) ? leaves[1] : leaves[0];
+			Leaf[] copy = new Leaf[leaves.length - 1];
+			for(int i = 0, k = 0; i < leaves.length; ++i) {
+				if(!leaves[i].getKey().equals(key))
+					copy[k++] = leaves[i];
+			}
+			return new Collision(coll.hash, copy);
+		}
+		// The leaf itself
+		return null;
+	}
+	
+	private final Leaf[] ordered() {
+		Leaf[] leaves;
+		if((leaves = ordered) == null) {
+			leaves = new Leaf[size];
+			collect(root, leaves, 0);
+			Arrays.sort(leaves, ORDER);
+			ordered = leaves;
+		}
+		return leaves;
+	}
+	
+	private static final int collect(Object node, Leaf[] leaves, int i) {
+		if((node instanceof Branch)) {
+			for(Object n : ((Branch) node).nodes)
+				i = collect(n, leaves, i);
+		} else if((node instanceof Collision)) {
+			for(Leaf leaf : ((Collision) node).leaves)
+				leaves[i++] = leaf;
+		} else if((node != null)) {
+			leaves[i++] = (Leaf) node;
+		}
+		return i;
+	}
+	
+	@Override
+	public Collection<SSDNode> values() {
+		return new Values();
+	}
+	
+	@Override
+	public Set<Entry<String, SSDNode>> entrySet() {
+		return new Entries();
+	}
+	
+	@SuppressWarnings("serial")
+	private static final class Leaf extends SimpleImmutableEntry<String, SSDNode> {
+		
+		final int 	 hash;
+		final int 	 order;
+		// Version of the map that has put the leaf
+		final Object version;
+		
+		Leaf(String key, int hash, int order, SSDNode node, Object version) {
+			super(key, node);
+			this.hash 	 = hash;
+			this.order 	 = order;
+			this.version = version;
+		}
+	}
+	
+	private static final class Branch {
+		
+		// Bits of the indexes of the present nodes
+		final int 	   bitmap;
+		final Object[] nodes;
+		
+		Branch(int bitmap, Object[] nodes) {
+			this.bitmap = bitmap;
+			this.nodes 	= nodes;
+		}
+	}
+	
+	// Leaves of different keys with the same hash
+	private static final class Collision {
+		
+		final int 	 hash;
+		final Leaf[] leaves;
+		
+		Collision(int hash, Leaf[] leaves) {
+			this.hash 	= hash;
+			this.leaves = leaves;
+		}
+	}
+	
+	// Iterates the nodes as they have been, when the iteration has started
+	private abstract class Iter<T> implements Iterator<T> {
+		
+		final Leaf[] leaves = ordered();
+		int  next;
+		Leaf last;
+		
+		@Override
+		public boolean hasNext() {
+			return next < leaves.length;
+		}
+		
+		final SSDNode nextNode() {
+			if((next >= leaves.length))
+				throw new NoSuchElementException();
+			SSDNode node = (last = leaves[next++]).getValue();
+			if((last.version == version))
+				return node;
+			// The node may have been copied in the meantime
+			Leaf leaf = find(root, last.getKey(), last.hash);
+			return leaf != null ? own(leaf) : node;
+		}
+		
+		@Override
+		public void remove() {
+			if((last == null))
+				throw new IllegalStateException();
+			SSDPersistentMap.this.remove(last.getKey());
+			last = null;
+		}
+	}
+	
+	private final class Values extends AbstractCollection<SSDNode> {
+		
+		@Override
+		public Iterator<SSDNode> iterator() {
+			return new Iter<SSDNode>() {
+				
+				@Override
+				public SSDNode next() {
+					return nextNode();
+				}
+			};
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+	
+	private final class Entries extends AbstractSet<Entry<String, SSDNode>> {
+		
+		@Override
+		public Iterator<Entry<String, SSDNode>> iterator() {
+			return new Iter<Entry<String, SSDNode>>() {
+				
+				@Override
+				public Entry<String, SSDNode> next() {
+					SSDNode node = nextNode();
+					return node == last.getValue()
+								? last
+								: new SimpleImmutableEntry<>(last.getKey(), node);
+				}
+			};
+		}
+		
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
\ No newline at end of file
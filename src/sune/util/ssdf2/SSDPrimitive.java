@@ -0,0 +1,209 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDF.WORD_FALSE;
+import static sune.util.ssdf2.SSDF.WORD_NULL;
+import static sune.util.ssdf2.SSDF.WORD_TRUE;
+
+/**
+ * Object of a primitive value, i.e. of an integer, a decimal, a boolean or null.
+ * The value is held unboxed by the object itself, the text of the value is
+ * created only when it is needed, e.g. when the object is written. Accessors
+ * of the value that do not match its type behave the same way as accessors
+ * of an {@linkplain SSDValue}, i.e. the text of the value is converted.*/
+abstract class SSDPrimitive extends SSDObject {
+	
+	SSDPrimitive(SSDNode parent, String name, SSDType type) {
+		super(parent, name, type);
+	}
+	
+	/**
+	 * Creates an object of the given parsed number, integers that are written
+	 * differently than they would be written by {@link Long#toString(long)} and
+	 * decimals with the plus sign keep their value.*/
+	static final SSDObject of(SSDNode parent, String name, SSDType type, SSDValue number) {
+		if((number.isPlainLong()))
+			return new OfLong(parent, name, number.longValue());
+		if((number.isPlainDouble()))
+			return new OfDouble(parent, name, number.doubleValue(), number.toString());
+		return new SSDObject(parent, name, type, number);
+	}
+	
+	/**
+	 * Creates an object of the given value of the given type, booleans and
+	 * nulls are always written as the words themselves.*/
+	static final SSDObject of(SSDNode parent, String name, String value, boolean compress,
+			SSDType type) {
+		if((type == SSDType.BOOLEAN))
+			return new OfBoolean(parent, name, value.equals(WORD_TRUE));
+		if((type == SSDType.NULL))
+			return new OfNull(parent, name);
+		return new SSDObject(parent, name, value, compress, type);
+	}
+	
+	@Override
+	public SSDValue getValue() {
+		return getFormattedValue();
+	}
+	
+	@Override
+	public abstract SSDValue getFormattedValue();
+	
+	@Override
+	abstract String text();
+	
+	@Override
+	public abstract SSDPrimitive copy();
+	
+	public boolean booleanValue() { return Boolean.valueOf(text()); }
+	public byte byteValue()       { return Byte.valueOf(text());    }
+	public short shortValue()     { return Short.valueOf(text());   }
+	public int intValue()         { return Integer.valueOf(text()); }
+	public long longValue()       { return Long.valueOf(text());    }
+	public float floatValue()     { return Float.valueOf(text());   }
+	public double doubleValue()   { return Double.valueOf(text());  }
+	public String stringValue()   { return text();                  }
+	public Object value()         { return text();                  }
+	
+	static final class OfLong extends SSDPrimitive {
+		
+		private final long value;
+		
+		OfLong(SSDNode parent, String name, long value) {
+			super(parent, name, SSDType.INTEGER);
+			this.value = value;
+		}
+		
+		@Override
+		public SSDValue getFormattedValue() {
+			return SSDValue.of(value);
+		}
+		
+		@Override
+		String text() {
+			return Long.toString(value);
+		}
+		
+		@Override
+		public OfLong copy() {
+			return new OfLong(getParent(), getName(), value);
+		}
+		
+		@Override
+		OfLong newCopy(SSDNode parent, boolean frozen) {
+			return new OfLong(parent, name, value);
+		}
+		
+		@Override
+		public byte byteValue() {
+			return (byte) value == value ? (byte) value : super.byteValue();
+		}
+		
+		@Override
+		public short shortValue() {
+			return (short) value == value ? (short) value : super.shortValue();
+		}
+		
+		@Override
+		public int intValue() {
+			return (int) value == value ? (int) value : super.intValue();
+		}
+		
+		public long longValue()     { return value;          }
+		public float floatValue()   { return (float)  value; }
+		public double doubleValue() { return (double) value; }
+	}
+	
+	static final class OfDouble extends SSDPrimitive {
+		
+		private final double value;
+		// Decimals are written as they have been read
+		private final String text;
+		
+		OfDouble(SSDNode parent, String name, double value, String text) {
+			super(parent, name, SSDType.DECIMAL);
+			this.value = value;
+			this.text  = text;
+		}
+		
+		@Override
+		public SSDValue getFormattedValue() {
+			return SSDValue.of(value, text);
+		}
+		
+		@Override
+		String text() {
+			return text;
+		}
+		
+		@Override
+		public OfDouble copy() {
+			return new OfDouble(getParent(), getName(), value, text);
+		}
+		
+		@Override
+		OfDouble newCopy(SSDNode parent, boolean frozen) {
+			return new OfDouble(parent, name, value, text);
+		}
+		
+		public double doubleValue() { return value; }
+	}
+	
+	static final class OfBoolean extends SSDPrimitive {
+		
+		private final boolean value;
+		
+		OfBoolean(SSDNode parent, String name, boolean value) {
+			super(parent, name, SSDType.BOOLEAN);
+			this.value = value;
+		}
+		
+		@Override
+		public SSDValue getFormattedValue() {
+			return value ? SSDValue.TRUE : SSDValue.FALSE;
+		}
+		
+		@Override
+		String text() {
+			return value ? WORD_TRUE : WORD_FALSE;
+		}
+		
+		@Override
+		public OfBoolean copy() {
+			return new OfBoolean(getParent(), getName(), value);
+		}
+		
+		@Override
+		OfBoolean newCopy(SSDNode parent, boolean frozen) {
+			return new OfBoolean(parent, name, value);
+		}
+		
+		public boolean booleanValue() { return value; }
+	}
+	
+	static final class OfNull extends SSDPrimitive {
+		
+		OfNull(SSDNode parent, String name) {
+			super(parent, name, SSDType.NULL);
+		}
+		
+		@Override
+		public SSDValue getFormattedValue() {
+			return SSDValue.NULL;
+		}
+		
+		@Override
+		String text() {
+			return WORD_NULL;
+		}
+		
+		@Override
+		public OfNull copy() {
+			return new OfNull(getParent(), getName());
+		}
+		
+		@Override
+		OfNull newCopy(SSDNode parent, boolean frozen) {
+			return new OfNull(parent, name);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,1574 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDF.CHAR_ANNOTATION_CB;
+import static sune.util.ssdf2.SSDF.CHAR_ANNOTATION_ITEM_DELIMITER;
+import static sune.util.ssdf2.SSDF.CHAR_ANNOTATION_NV_DELIMITER;
+import static sune.util.ssdf2.SSDF.CHAR_ANNOTATION_OB;
+import static sune.util.ssdf2.SSDF.CHAR_ANNOTATION_SIGN;
+import static sune.util.ssdf2.SSDF.CHAR_ARRAY_CB;
+import static sune.util.ssdf2.SSDF.CHAR_ARRAY_OB;
+import static sune.util.ssdf2.SSDF.CHAR_COMMENT_FIRST;
+import static sune.util.ssdf2.SSDF.CHAR_COMMENT_MULTIPLE_LINES;
+import static sune.util.ssdf2.SSDF.CHAR_COMMENT_ONE_LINE;
+import static sune.util.ssdf2.SSDF.CHAR_DOUBLE_QUOTES;
+import static sune.util.ssdf2.SSDF.CHAR_ESCAPE;
+import static sune.util.ssdf2.SSDF.CHAR_FUNCCALL_ARGS_DELIMITER;
+import static sune.util.ssdf2.SSDF.CHAR_FUNCCALL_CB;
+import static sune.util.ssdf2.SSDF.CHAR_FUNCCALL_OB;
+import static sune.util.ssdf2.SSDF.CHAR_ITEM_DELIMITER;
+import static sune.util.ssdf2.SSDF.CHAR_NEWLINE;
+import static sune.util.ssdf2.SSDF.CHAR_NV_DELIMITER;
+import static sune.util.ssdf2.SSDF.CHAR_OBJECT_CB;
+import static sune.util.ssdf2.SSDF.CHAR_OBJECT_OB;
+import static sune.util.ssdf2.SSDF.CHAR_SINGLE_QUOTES;
+import static sune.util.ssdf2.SSDF.CHAR_SPACE;
+import static sune.util.ssdf2.SSDF.WORD_ANNOTATION_DEFAULT;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+
+/**
+ * Pull-style reader of the SSDF syntax. The content is read in chunks and
+ * only as much of it as needed to produce the next event, therefore even
+ * very large contents can be processed in constant memory, without building
+ * the whole tree of nodes. Byte contents, i.e. streams, files and buffers,
+ * are read as UTF-8 directly, only the bytes of names, values and comments
+ * are decoded when they are materialized.
+ * <br><br>
+ * Each of the {@code START_OBJECT}, {@code START_ARRAY}, {@code ANNOTATION}
+ * and {@code FUNCTION_CALL} events is always paired with an {@code END} event.
+ * Items of objects and annotations are preceded by a {@code NAME} event.*/
+public final class SSDReader implements Closeable {
+	
+	public static enum Event {
+		START_OBJECT, START_ARRAY, NAME, VALUE, ANNOTATION, FUNCTION_CALL, COMMENT, END;
+	}
+	
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+	// Maximum size of a temporary buffer that is kept when the reader is reset
+	private static final int RETAINED_BUFFER_SIZE = 1 << 16;
+	// Size of a region of a file that is mapped at once
+	private static final long MAP_REGION_SIZE   = 1L << 28;
+	
+	// Kinds of parents
+	private static final int KIND_OBJECT     = 0;
+	private static final int KIND_ARRAY      = 1;
+	private static final int KIND_ANNOTATION = 2;
+	private static final int KIND_FUNCTION   = 3;
+	
+	// ----- Input
+	
+	// Character input
+	private Reader input;
+	private char[] buf;
+	private int pos;
+	private int lim;
+	private boolean eof;
+	// Byte input, UTF-8 encoded, read without decoding
+	private boolean utf8;
+	private ByteBuffer bytes;
+	private InputStream stream;
+	// Whether there are no more bytes than the ones in the buffer
+	private boolean last;
+	// Mapped file input, mapped by regions
+	private FileChannel channel;
+	private long mapStart;
+	private long mapEnd;
+	private long mapSize;
+	
+	// ----- Formatting state
+	
+	// In double quotes
+	private boolean findq;
+	// In single quotes
+	private boolean finsq;
+	// Determining if a character is escaped
+	private boolean fescaped;
+	// Current escape strength
+	private int fescape;
+	// Number of encountered annotation signs
+	private int fsann;
+	// Number of encountered annotation signs followed by a bracket
+	private int fiann;
+	// Whether the comment first character was encountered
+	private boolean fcmtfirst;
+	private boolean fcmtcontent;
+	private boolean fcmtoneline;
+	
+	// ----- Reading state
+	
+	// In double quotes
+	private boolean indq;
+	// In single quotes
+	private boolean insq;
+	// Temporary objects for names and values, for byte input the bytes
+	// are stored and decoded only when a string is needed
+	private char[]  temp = new char[64];
+	private int     tlen;
+	private boolean tnascii;
+	private byte[]  tbytes;
+	private final TempChars tchars = new TempChars();
+	// Whether the temporary string contains a character that the formatting
+	// could still remove, i.e. the value has to be compressed
+	private boolean tempws;
+	private String tempName;
+	private String lastName;
+	private String lobjName;
+	// Counter for array objects, for the current parent only
+	private int counter;
+	// Interned names
+	private final SSDInterner names = new SSDInterner();
+	// Determining if a character is escaped
+	private boolean escaped;
+	// Current escape strength
+	private int escape;
+	// Whether the annotation sign was encountered
+	private boolean bann;
+	// Whether the value should be defined now
+	private boolean isval;
+	// Annotations for current object/collection
+	private final Deque<Frame> anns = new ArrayDeque<>();
+	// Holds all parents, the first element represents the current parent
+	private final Deque<Frame> parents = new ArrayDeque<>();
+	// Objects for handling information about parent
+	private boolean array;
+	private boolean function;
+	private boolean isfsimple;
+	private int     ctfsimple;
+	// Whether the items of an annotation are read and the number of annotations
+	// at the time, for each nested annotation
+	private boolean[] annsval = new boolean[8];
+	private int[]     annscnt = new int[8];
+	private int       annsdepth;
+	// Frames that are not used anymore and can be reused
+	private Frame[] frames = new Frame[16];
+	private int     nframes;
+	// Whether the comment first character was encountered
+	private boolean cmtfirst;
+	private boolean cmtcontent;
+	private boolean cmtoneline;
+	// The last content of item when entering a comment
+	private char[]  lastContent;
+	private int     lastContentlen;
+	private boolean lastContentws;
+	private boolean lastContentnascii;
+	// Whether the main object has been closed
+	private boolean closed;
+	// Whether the nested collections should be skipped
+	private boolean lazy;
+	// The start event of the currently skipped collection
+	private Token skipped;
+	// Options of reading
+	private boolean discardComments;
+	private boolean discardAnnotations;
+	private boolean functionsAsLiterals;
+	private boolean noVariables;
+	// Whether the content of a function call is read as a literal value
+	private boolean literal;
+	// Number of the annotations in the parents
+	private int annsparents;
+	// Retained content, of which string values can be slices, and position
+	// of the currently read character in it
+	private String schars;
+	private byte[] sbytes;
+	private int    cpos;
+	
+	// ----- Events
+	
+	private Token[] queue = new Token[8];
+	private int qhead;
+	private int qsize;
+	private final Token current = new Token();
+	// Token of the discarded events
+	private final Token discarded = new Token();
+	
+	public SSDReader(Reader reader) {
+		if((reader == null))
+			throw new IllegalArgumentException("Reader cannot be null");
+		this.input = reader;
+		this.buf   = new char[DEFAULT_BUFFER_SIZE];
+		this.utf8  = false;
+		init();
+	}
+	
+	/**
+	 * Creates a new reader of the given stream of UTF-8 encoded bytes.*/
+	public SSDReader(InputStream stream) {
+		this(emptyBuffer(DEFAULT_BUFFER_SIZE));
+		if((stream == null))
+			throw new IllegalArgumentException("Stream cannot be null");
+		this.stream = stream;
+		this.last   = false;
+	}
+	
+	public SSDReader(String content) {
+		this(chars(content), 0, content.length());
+	}
+	
+	/**
+	 * Creates a new reader of the given file of UTF-8 encoded bytes. The file
+	 * is mapped to memory, therefore no copy of its content is held in the heap.*/
+	public SSDReader(Path path) throws IOException {
+		this(emptyBuffer(0));
+		if((path == null))
+			throw new IllegalArgumentException("Path cannot be null");
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.mapSize = channel.size();
+		this.last    = mapSize == 0L;
+	}
+	
+	/**
+	 * Creates a new reader of the remaining UTF-8 encoded bytes of the given
+	 * buffer.*/
+	public SSDReader(ByteBuffer buffer) {
+		if((buffer == null))
+			throw new IllegalArgumentException("Buffer cannot be null");
+		this.input = null;
+		this.buf   = null;
+		this.utf8  = true;
+		this.bytes = buffer;
+		this.last  = true;
+		init();
+	}
+	
+	SSDReader(char[] chars, int off, int len) {
+		this.input = null;
+		this.buf   = chars;
+		this.pos   = off;
+		this.lim   = off + len;
+		this.eof   = true;
+		this.utf8  = false;
+		init();
+	}
+	
+	/**
+	 * Creates a new reader without any content. The content has to be set
+	 * using one of the reset methods.*/
+	SSDReader() {
+		this(null, 0, 0);
+	}
+	
+	private static final ByteBuffer emptyBuffer(int capacity) {
+		ByteBuffer buffer = ByteBuffer.allocate(capacity);
+		buffer.limit(0);
+		return buffer;
+	}
+	
+	private static final char[] chars(String content) {
+		if((content == null))
+			throw new IllegalArgumentException("Content cannot be null");
+		return content.toCharArray();
+	}
+	
+	private final void init() {
+		for(int i = 0, l = queue.length; i < l; ++i)
+			queue[i] = new Token();
+	}
+	
+	/**
+	 * Resets the reader to read the given characters. All the reading state
+	 * is cleared, the temporary buffers are kept and reused.*/
+	final SSDReader reset(char[] chars, int off, int len) {
+		clear();
+		input = null;
+		buf   = chars;
+		pos   = off;
+		lim   = off + len;
+		eof   = true;
+		utf8  = false;
+		return this;
+	}
+	
+	/**
+	 * Resets the reader to read the given stream of UTF-8 encoded bytes. All
+	 * the reading state is cleared, the temporary buffers, including the buffer
+	 * of the stream, are kept and reused.*/
+	final SSDReader reset(InputStream stream) {
+		clear();
+		if((bytes == null || bytes.capacity() != DEFAULT_BUFFER_SIZE))
+			bytes = emptyBuffer(DEFAULT_BUFFER_SIZE);
+		bytes.position(0).limit(0);
+		input  = null;
+		buf    = null;
+		utf8   = true;
+		last   = false;
+		this.stream = stream;
+		return this;
+	}
+	
+	/**
+	 * Releases the current content, so that it is not referenced by the reader
+	 * anymore. The temporary buffers are kept.*/
+	final void release() {
+		clear();
+		input  = null;
+		buf    = null;
+		stream = null;
+	}
+	
+	private final void clear() {
+		// Input
+		channel  = null;
+		mapStart = 0L;
+		mapEnd   = 0L;
+		mapSize  = 0L;
+		// Formatting state
+		findq 		= false;
+		finsq 		= false;
+		fescaped 	= false;
+		fescape 	= 0;
+		fsann 		= 0;
+		fiann 		= 0;
+		fcmtfirst 	= false;
+		fcmtcontent = false;
+		fcmtoneline = false;
+		// Reading state
+		indq 	 = false;
+		insq 	 = false;
+		tempName = null;
+		lastName = null;
+		lobjName = null;
+		counter  = 0;
+		escaped  = false;
+		escape 	 = 0;
+		bann 	 = false;
+		isval 	 = false;
+		anns   .clear();
+		parents.clear();
+		array 	  = false;
+		function  = false;
+		isfsimple = false;
+		ctfsimple = 0;
+		annsdepth = 0;
+		cmtfirst   = false;
+		cmtcontent = false;
+		cmtoneline = false;
+		lastContentlen 	  = 0;
+		lastContentws 	  = false;
+		lastContentnascii = false;
+		closed  = false;
+		lazy 	= false;
+		skipped = null;
+		literal = false;
+		annsparents = 0;
+		schars = null;
+		sbytes = null;
+		options(SSDParseOptions.DEFAULT);
+		clearTemp();
+		// Do not keep too large buffers
+		if((temp.length > RETAINED_BUFFER_SIZE)) {
+			temp 		= new char[64];
+			tbytes 		= null;
+			lastContent = null;
+		}
+		// Events
+		for(int i = 0, l = queue.length; i < l; ++i)
+			queue[i].clear();
+		current.clear();
+		qhead = 0;
+		qsize = 0;
+	}
+	
+	/**
+	 * Checks whether there is another event. Reads the content, if needed.*/
+	public boolean hasNext() {
+		if((qsize > 0))
+			return true;
+		try {
+			return utf8 ? readBytes() : readChars();
+		} catch(IOException ex) {
+			throw new IllegalStateException("An error has occurred while reading the content", ex);
+		}
+	}
+	
+	private final boolean readChars() throws IOException {
+		while(qsize == 0 && !closed) {
+			if((pos >= lim && !fill()))
+				return false;
+			char[] b = buf;
+			int    p = pos;
+			int    l = lim;
+			for(int c; p < l && qsize == 0 && !closed; ++p) {
+				// Format the current character, it may be removed or replaced
+				if((c = format(b[p])) < 0)
+					continue;
+				// Read the formatted character
+				cpos = p;
+				read(c);
+				// Skip content of a lazily read collection
+				if((skipped != null))
+					p = skip(p + 1, l);
+				// Read the following characters that do not change the state
+				else if(!escaped)
+					p = readRun(b, p + 1, l) - 1;
+			}
+			pos = p;
+		}
+		return qsize > 0;
+	}
+	
+	private final boolean readBytes() throws IOException {
+		while(qsize == 0 && !closed) {
+			ByteBuffer b = bytes;
+			int p = b.position();
+			int l = b.limit();
+			if((p >= l)) {
+				if(!refill())
+					return false;
+				continue;
+			}
+			boolean more = false;
+			for(int c; p < l && qsize == 0 && !closed; ++p) {
+				c = b.get(p) & 0xff;
+				cpos = p;
+				// All structural characters are ASCII, other bytes are read as they are,
+				// except for whitespace characters outside of quotes and comments, which
+				// all are encoded as three bytes with one of these leading bytes
+				if((c >= 0xe1 && c <= 0xe3 && !fcmtcontent && !findq && !finsq)) {
+					if((l - p < 3 && !last)) {
+						// The whole character is needed
+						more = true;
+						break;
+					}
+					int cp;
+					if((l - p >= 3 && Character.isWhitespace(cp = decode3(b, p)))) {
+						c  = cp;
+						p += 2;
+					}
+				}
+				// Format the current character, it may be removed or replaced
+				if((c = format(c)) < 0)
+					continue;
+				// Read the formatted character
+				read(c);
+				// Skip content of a lazily read collection
+				if((skipped != null))
+					p = skip(p + 1, l);
+				// Read the following characters that do not change the state
+				else if(!escaped)
+					p = readRun(b, p + 1, l) - 1;
+			}
+			b.position(p);
+			if((more))
+				refill();
+		}
+		return qsize > 0;
+	}
+	
+	/**
+	 * Skips the content of the current collection, starting at the given
+	 * position. The closing bracket is read as usual. Returns position of
+	 * the closing bracket.*/
+	private final int skip(int p, int l) {
+		Range range = skipped.range;
+		range.start = p - 1;
+		// Position of the first comment that is not followed by any value, such
+		// comments belong to the next item of the parent and are read as usual
+		int     tail = -1;
+		boolean pend = true;
+		for(int c, depth = 1; p < l; ++p) {
+			c = utf8 ? bytes.get(p) & 0xff : buf[p];
+			boolean incmt = fcmtcontent;
+			// Skip everything in quotes and comments
+			if((c = format(c)) < 0 || fcmtcontent || findq || finsq) {
+				if((!incmt && fcmtcontent && pend && tail < 0))
+					tail = p - 1;
+				if(!fescaped) {
+					int end = runEnd(p + 1, l);
+					// Plain characters outside quotes and comments are a value
+					if((end > p + 1 && !fcmtcontent && !findq && !finsq)) {
+						pend = false;
+						tail = -1;
+					}
+					p = end - 1;
+				}
+				continue;
+			}
+			if((c == CHAR_OBJECT_OB || c == CHAR_ARRAY_OB || c == CHAR_FUNCCALL_OB)) {
+				// Comments followed by a collection belong to it
+				++depth;
+				pend = true;
+				tail = -1;
+			} else if((c == CHAR_OBJECT_CB || c == CHAR_ARRAY_CB || c == CHAR_FUNCCALL_CB)) {
+				if((--depth == 0)) {
+					range.end = p + 1;
+					skipped   = null;
+					if((tail >= 0))
+						readComments(tail, p);
+					cmtfirst 	= fcmtfirst;
+					read(c);
+					return p;
+				}
+				pend = true;
+			} else if((c == CHAR_ITEM_DELIMITER)) {
+				pend = true;
+			} else if((!incmt && c != CHAR_COMMENT_FIRST)) {
+				// Comments followed by a value belong to it
+				pend = false;
+				tail = -1;
+			}
+		}
+		// The collection is not closed, the whole content has been read
+		return l - 1;
+	}
+	
+	/**
+	 * Reads the comments between the given positions of a skipped collection
+	 * again, the other characters, i.e. brackets and delimiters of its items,
+	 * are only formatted.*/
+	private final void readComments(int p, int l) {
+		cmtfirst = false;
+		for(int c; p < l; ++p) {
+			c = utf8 ? bytes.get(p) & 0xff : buf[p];
+			boolean incmt = fcmtcontent;
+			if((c = format(c)) < 0)
+				continue;
+			if((incmt || fcmtcontent || c == CHAR_COMMENT_FIRST))
+				read(c);
+		}
+	}
+	
+	/**
+	 * Gets position of the first character, starting at the given position,
+	 * that may change the formatting state, i.e. the end of the current run
+	 * of characters in quotes, in a comment, or of plain characters.*/
+	private final int runEnd(int p, int l) {
+		int x, y;
+		if((fcmtcontent)) {
+			x = fcmtoneline ? CHAR_NEWLINE : CHAR_COMMENT_MULTIPLE_LINES;
+			y = fcmtoneline ? CHAR_NEWLINE : CHAR_COMMENT_FIRST;
+		} else if((findq || finsq)) {
+			x = findq ? CHAR_DOUBLE_QUOTES : CHAR_SINGLE_QUOTES;
+			y = CHAR_ESCAPE;
+		} else {
+			return utf8 ? SSDScanner.plainEnd(bytes, p, l) : SSDScanner.plainEnd(buf, p, l);
+		}
+		return utf8 ? SSDScanner.find(bytes, p, l, x, y) : SSDScanner.find(buf, p, l, x, y);
+	}
+	
+	/**
+	 * Reads the run of characters that starts at the given position, if both
+	 * the formatting and the reading state are the same, such characters
+	 * are only added to the temporary string. Returns the end of the run.*/
+	private final int readRun(char[] b, int p, int l) {
+		if(!isRunnable())
+			return p;
+		int end = runEnd(p, l);
+		if((end > p && !(cmtcontent && discardComments))) {
+			if((tlen + end - p > temp.length))
+				temp = Arrays.copyOf(temp, Math.max(temp.length << 1, tlen + end - p));
+			System.arraycopy(b, p, temp, tlen, end - p);
+			tlen += end - p;
+		}
+		return end;
+	}
+	
+	private final int readRun(ByteBuffer b, int p, int l) {
+		if(!isRunnable())
+			return p;
+		int end = runEnd(p, l);
+		if((end > p && !(cmtcontent && discardComments))) {
+			if((tlen + end - p > temp.length))
+				temp = Arrays.copyOf(temp, Math.max(temp.length << 1, tlen + end - p));
+			if((!tnascii && (findq || finsq || fcmtcontent)
+					&& SSDScanner.hasNonAscii(b, p, end)))
+				tnascii = true;
+			char[] t = temp;
+			for(int i = p, k = tlen; i < end; ++i, ++k)
+				t[k] = (char) (b.get(i) & 0xff);
+			tlen += end - p;
+		}
+		return end;
+	}
+	
+	private final boolean isRunnable() {
+		return !fescaped && !closed
+					&& findq 	   == indq
+					&& finsq 	   == insq
+					&& fcmtcontent == cmtcontent
+					&& fcmtoneline == cmtoneline;
+	}
+	
+	/**
+	 * Sets whether the content of nested collections should be skipped,
+	 * only their positions are then provided. Only the in-memory content
+	 * can be read lazily.*/
+	final SSDReader lazy(boolean lazy) {
+		if((lazy && !isInMemory()))
+			throw new IllegalStateException("Only in-memory content can be read lazily");
+		this.lazy = lazy;
+		return this;
+	}
+	
+	/**
+	 * Sets the options of reading.*/
+	final SSDReader options(SSDParseOptions options) {
+		discardComments 	= options.isDiscardComments();
+		discardAnnotations 	= options.isDiscardAnnotations();
+		functionsAsLiterals = options.isFunctionsAsLiterals();
+		noVariables 		= options.isNoVariables();
+		return this;
+	}
+	
+	/**
+	 * Sets the content of which the string values are slices, instead of
+	 * copies. The content has to be the same as the read characters.*/
+	final SSDReader retain(String content) {
+		schars = content;
+		return this;
+	}
+	
+	/**
+	 * Sets the content of which the ASCII string values are slices, instead
+	 * of copies. The content has to be the array of the read bytes.*/
+	final SSDReader retain(byte[] content) {
+		sbytes = content;
+		return this;
+	}
+	
+	/**
+	 * Creates a new reader of the given skipped collection of the in-memory
+	 * content of this reader, without copying it. The reading state is set
+	 * to the one at the start of the collection.*/
+	final SSDReader rangeOf(Range range) {
+		SSDReader reader;
+		if((utf8)) {
+			ByteBuffer content = bytes.duplicate();
+			content.limit(range.end).position(range.start);
+			reader = new SSDReader(content);
+		} else {
+			reader = new SSDReader(buf, range.start, range.end - range.start);
+		}
+		reader.isval 	= range.isval;
+		reader.lastName = range.lastName;
+		reader.lobjName = range.lobjName;
+		return reader.lazy(true);
+	}
+	
+	/**
+	 * Checks whether the whole content is available in memory, i.e. it is
+	 * not read from a stream, a reader or by regions of a file.*/
+	final boolean isInMemory() {
+		return utf8 ? last && channel == null : input == null;
+	}
+	
+	/**
+	 * Scans the whole content for the main array and the item delimiters of its
+	 * top-level items. Returns positions of the opening bracket, the delimiters
+	 * and the closing bracket, or {@code null}, if the main collection is not
+	 * an array, or it is preceded by anything else than comments. Comments
+	 * between a collection and a delimiter belong to the next item, therefore
+	 * position of the first of them is returned instead of the delimiter.*/
+	final int[] scanArray() {
+		if(!isInMemory())
+			return null;
+		int p = utf8 ? bytes.position() : pos;
+		int l = utf8 ? bytes.limit()    : lim;
+		int[] marks = new int[16];
+		int   count = 0;
+		int   depth = 0;
+		// Whether the last top-level item is a collection and position
+		// of the first comment after it
+		boolean coll = false;
+		int     cmt  = -1;
+		for(int c; p < l; ++p) {
+			c = utf8 ? bytes.get(p) & 0xff : buf[p];
+			boolean incmt = fcmtcontent;
+			// Skip everything in quotes and comments
+			if((c = format(c)) < 0 || fcmtcontent || findq || finsq) {
+				if((!incmt && fcmtcontent && coll && cmt < 0))
+					cmt = p - 1;
+				continue;
+			}
+			if((c == CHAR_OBJECT_OB || c == CHAR_ARRAY_OB || c == CHAR_FUNCCALL_OB)) {
+				if((depth++ == 0)) {
+					if((c != CHAR_ARRAY_OB))
+						return null;
+					marks[count++] = p;
+				}
+			} else if((c == CHAR_OBJECT_CB || c == CHAR_ARRAY_CB || c == CHAR_FUNCCALL_CB)) {
+				if((depth == 0))
+					return null;
+				if((--depth == 0)) {
+					if((count == marks.length))
+						marks = Arrays.copyOf(marks, count << 1);
+					marks[count++] = p;
+					return Arrays.copyOf(marks, count);
+				}
+			} else if((depth == 1 && c == CHAR_ITEM_DELIMITER)) {
+				if((count == marks.length))
+					marks = Arrays.copyOf(marks, count << 1);
+				marks[count++] = cmt >= 0 ? cmt : p;
+			} else if((depth == 0 && c != CHAR_COMMENT_FIRST
+						&& !Character.isWhitespace(c))) {
+				return null;
+			}
+			// The end of a comment, or the start of a possible one, is not an item
+			if((!incmt && c != CHAR_COMMENT_FIRST)) {
+				coll = depth == 1 && (c == CHAR_OBJECT_CB || c == CHAR_ARRAY_CB
+										|| c == CHAR_FUNCCALL_CB);
+				cmt  = -1;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Creates a new reader of the given range of the in-memory content of this
+	 * reader. The range is followed by a closing array bracket and, if needed,
+	 * preceded by an opening array bracket.*/
+	final SSDReader arrayOf(int start, int end, boolean open) {
+		int length = end - start;
+		int offset = open ? 1 : 0;
+		int total  = length + offset + 1;
+		if((utf8)) {
+			byte[] b = new byte[total];
+			ByteBuffer source = bytes.duplicate();
+			source.position(start);
+			source.get(b, offset, length);
+			if(open) b[0] = CHAR_ARRAY_OB;
+			b[total - 1]  = CHAR_ARRAY_CB;
+			return new SSDReader(ByteBuffer.wrap(b));
+		}
+		char[] c = new char[total];
+		System.arraycopy(buf, start, c, offset, length);
+		if(open) c[0] = CHAR_ARRAY_OB;
+		c[total - 1]  = CHAR_ARRAY_CB;
+		return new SSDReader(c, 0, total);
+	}
+	
+	final int contentStart() {
+		return utf8 ? bytes.position() : pos;
+	}
+	
+	/**
+	 * Creates a new reader of the whole in-memory content of this reader.*/
+	final SSDReader restart() {
+		return utf8 ? new SSDReader(bytes.duplicate())
+					: new SSDReader(buf, pos, lim - pos);
+	}
+	
+	private static final int decode3(ByteBuffer b, int p) {
+		int b1 = b.get(p+1), b2 = b.get(p+2);
+		if(((b1 & 0xc0) != 0x80 || (b2 & 0xc0) != 0x80))
+			return -1;
+		return ((b.get(p) & 0x0f) << 12) | ((b1 & 0x3f) << 6) | (b2 & 0x3f);
+	}
+	
+	/**
+	 * Moves to the next event and returns it.*/
+	public Event next() {
+		if(!hasNext())
+			throw new NoSuchElementException("No more events");
+		Token t = queue[qhead];
+		current.set(t);
+		t.clear();
+		qhead = (qhead + 1) & (queue.length - 1);
+		--qsize;
+		return current.event;
+	}
+	
+	/**
+	 * Gets the current event.*/
+	public Event event() {
+		return current.event;
+	}
+	
+	/**
+	 * Gets name of the current item. Available for the {@code NAME},
+	 * {@code VALUE}, {@code START_OBJECT}, {@code START_ARRAY},
+	 * {@code ANNOTATION} and {@code FUNCTION_CALL} events. The main
+	 * object has no name.*/
+	public String name() {
+		return current.name;
+	}
+	
+	/**
+	 * Gets the value of the current {@code VALUE} event, as it is written
+	 * in the content, name of the called function of the current
+	 * {@code FUNCTION_CALL} event, or content of the current {@code COMMENT}
+	 * event.*/
+	public String value() {
+		// The text of a number, or of a slice, is created only when needed
+		return current.number != null ? current.number.toString() :
+			   current.slice  != null ? current.slice .toString() :
+										current.value;
+	}
+	
+	/**
+	 * Gets the current {@code VALUE} event as an object.*/
+	public SSDObject object() {
+		if((current.event != Event.VALUE))
+			throw new IllegalStateException("Current event is not a value");
+		return object(current);
+	}
+	
+	private static final SSDObject object(Token t) {
+		return t.number != null ? SSDPrimitive.of(null, t.name, t.type, t.number) :
+			   t.slice  != null ? new SSDObject(null, t.name, t.type, SSDValue.string(t.slice)) :
+									SSDPrimitive.of(null, t.name, t.value, t.flag, t.type);
+	}
+	
+	/**
+	 * Gets the current {@code COMMENT} event as a comment.*/
+	public SSDComment comment() {
+		if((current.event != Event.COMMENT))
+			throw new IllegalStateException("Current event is not a comment");
+		return new SSDComment(current.value, current.flag);
+	}
+	
+	/**
+	 * Gets the number of the most recently read annotations that belong
+	 * to the current value, collection or function call.*/
+	int annotations() {
+		return current.count;
+	}
+	
+	/**
+	 * Whether the current value has to be compressed. Whether the closed
+	 * function call of the current {@code END} event should be added to its
+	 * parent.*/
+	boolean flag() {
+		return current.flag;
+	}
+	
+	/**
+	 * Gets the type of the current {@code VALUE} event.*/
+	SSDType type() {
+		return current.type;
+	}
+	
+	/**
+	 * Gets the primitive value of the current {@code VALUE} event, if it is
+	 * a number, otherwise {@code null}.*/
+	SSDValue number() {
+		return current.number;
+	}
+	
+	/**
+	 * Gets the slice of the retained content of the current {@code VALUE}
+	 * event, if it is a string, otherwise {@code null}.*/
+	SSDSlice slice() {
+		return current.slice;
+	}
+	
+	/**
+	 * Gets the range of the current skipped collection.*/
+	Range range() {
+		return current.range;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		if((input != null))
+			input.close();
+		if((stream != null))
+			stream.close();
+		if((channel != null))
+			channel.close();
+	}
+	
+	private final boolean fill() throws IOException {
+		if((eof))
+			return false;
+		int n;
+		while((n = input.read(buf, 0, buf.length)) == 0);
+		if((n < 0)) {
+			eof = true;
+			return false;
+		}
+		pos = 0;
+		lim = n;
+		return true;
+	}
+	
+	/**
+	 * Makes more bytes available, the bytes that have not been read yet are
+	 * kept. Returns {@code false}, if there are no more bytes.*/
+	private final boolean refill() throws IOException {
+		if((last))
+			return false;
+		if((channel != null)) {
+			// Map the next region, including the bytes that have not been read yet
+			long start = mapStart + bytes.position();
+			long size  = Math.min(MAP_REGION_SIZE, mapSize - start);
+			bytes 	 = channel.map(MapMode.READ_ONLY, start, size);
+			mapStart = start;
+			mapEnd   = start + size;
+			last 	 = mapEnd >= mapSize;
+			return true;
+		}
+		ByteBuffer b = bytes;
+		b.compact();
+		int n;
+		while((n = stream.read(b.array(), b.position(), b.remaining())) == 0);
+		if((n < 0)) {
+			last = true;
+		} else {
+			b.position(b.position() + n);
+		}
+		b.flip();
+		return n > 0;
+	}
+	
+	private final void growQueue() {
+		// Keep the order of the queued events, the size is a power of two
+		Token[] q = new Token[queue.length << 1];
+		for(int i = 0, l = queue.length; i < l; ++i)
+			q[i] = queue[(qhead + i) & (l - 1)];
+		for(int i = queue.length, l = q.length; i < l; ++i)
+			q[i] = new Token();
+		queue = q;
+		qhead = 0;
+	}
+	
+	private final Token emit(Event event, String name, String value) {
+		Token t;
+		if((discardAnnotations && annsparents > 0)) {
+			// Items of discarded annotations are still read, so that
+			// the namespaces of function calls are known
+			t = discarded;
+			t.clear();
+		} else {
+			if((qsize == queue.length))
+				growQueue();
+			t = queue[(qhead + qsize++) & (queue.length - 1)];
+		}
+		t.event = event;
+		t.name  = name;
+		t.value = value;
+		return t;
+	}
+	
+	/**
+	 * Formats the given character. Returns the character that should be read,
+	 * or {@code -1}, if the character should be skipped.*/
+	private final int format(int c) {
+		// Comments logic
+		if((fcmtcontent)) {
+			// One line comment
+			if((fcmtoneline)) {
+				if((c == CHAR_NEWLINE)) {
+					fcmtcontent = false;
+					fcmtfirst   = false;
+				}
+			}
+			// Multiple line comment
+			else {
+				if((fcmtfirst && c == CHAR_COMMENT_FIRST)) {
+					fcmtcontent = false;
+					fcmtfirst   = false;
+				} else if((c == CHAR_COMMENT_MULTIPLE_LINES)) {
+					fcmtfirst = true;
+				}
+			}
+			return c;
+		}
+		// Escape logic
+		if(fescaped && --fescape == 0) 	  fescaped = false;
+		if(c == CHAR_ESCAPE && !fescaped) fescaped = (fescape = 2) > 0; else
+		// Quotes logic
+		if(c == CHAR_DOUBLE_QUOTES && !finsq && !fescaped) findq = !findq; else
+		if(c == CHAR_SINGLE_QUOTES && !findq && !fescaped) finsq = !finsq; else
+		// Formatting logic
+		if(!findq && !finsq) {
+			if((fcmtfirst &&
+					(c == CHAR_COMMENT_ONE_LINE ||
+					 c == CHAR_COMMENT_MULTIPLE_LINES))) {
+				fcmtcontent = true;
+				fcmtoneline = c == CHAR_COMMENT_ONE_LINE;
+				fcmtfirst   = false;
+			} else if((c == CHAR_COMMENT_FIRST)) {
+				fcmtfirst = true;
+			} else if((c == CHAR_ANNOTATION_SIGN)) {
+				++fsann;
+			} else if((c == CHAR_ANNOTATION_OB && fsann > 0)) {
+				++fiann;
+			} else if((c == CHAR_ANNOTATION_CB && fiann > 0)) {
+				--fiann;
+				if((fsann > 0))
+					--fsann;
+			} else if((Character.isWhitespace(c))) {
+				// The last annotation has no attributes
+				if((fsann > 0 && fsann != fiann)) {
+					--fsann;
+					return CHAR_SPACE;
+				}
+				return -1;
+			}
+		}
+		return c;
+	}
+	
+	/**
+	 * Reads the given formatted character.*/
+	private final void read(int c) {
+		boolean cadd = true;
+		// Comments logic
+		if((cmtcontent)) {
+			// One line comment
+			if((cmtoneline)) {
+				if((c == CHAR_NEWLINE)) {
+					cmtcontent = false;
+					cmtfirst   = false;
+					endComment();
+					cadd 	   = false;
+				}
+			}
+			// Multiple line comment
+			else {
+				if((cmtfirst && c == CHAR_COMMENT_FIRST)) {
+					cmtcontent = false;
+					cmtfirst   = false;
+					endComment();
+					cadd 	   = false;
+				} else if((c == CHAR_COMMENT_MULTIPLE_LINES)) {
+					cmtfirst = true;
+				}
+			}
+			// Content of a discarded comment is not needed
+			if((discardComments))
+				cadd = false;
+		} else {
+			// Escape logic
+			if(escaped && --escape == 0) 	 escaped = false;
+			if(c == CHAR_ESCAPE && !escaped) escaped = (escape = 2) > 0; else
+			// Quotes logic
+			if(c == CHAR_DOUBLE_QUOTES && !insq && !escaped) indq = !indq; else
+			if(c == CHAR_SINGLE_QUOTES && !indq && !escaped) insq = !insq;
+			// Reading logic
+			else {
+				// Not in quotes
+				if(!indq && !insq) {
+					cadd = false;
+					if((cmtfirst &&
+							(c == CHAR_COMMENT_ONE_LINE ||
+							 c == CHAR_COMMENT_MULTIPLE_LINES))) {
+						cmtcontent    = true;
+						cmtoneline    = c == CHAR_COMMENT_ONE_LINE;
+						cmtfirst      = false;
+						saveTemp();
+						clearTemp();
+					} else if((c == CHAR_COMMENT_FIRST)) {
+						cmtfirst = true;
+					} else {
+						// Special loop for content-simple functions
+						if((isfsimple)) {
+							if(c == CHAR_FUNCCALL_OB) ++ctfsimple; else
+							if(c == CHAR_FUNCCALL_CB) --ctfsimple;
+							if(ctfsimple > 0) cadd 		= true;
+							else 			  isfsimple = false;
+							// The closing bracket is a part of a literal
+							if((literal && !isfsimple)) {
+								literal = false;
+								cadd 	= true;
+							}
+						}
+						if(!isfsimple && !cadd) {
+							if(// Objects and arrays
+							   (c == CHAR_OBJECT_OB ||
+							    c == CHAR_ARRAY_OB) ||
+							   // Annotations
+							   ((!isval && c == CHAR_ANNOTATION_OB) ||
+								(bann   && c == CHAR_SPACE)) 		||
+							   // Function call
+							   (isval && (c == CHAR_FUNCCALL_OB))) {
+								// Current object is an annotation
+								if(((c == CHAR_ANNOTATION_OB && !isval) || bann)) {
+									beginAnnotation(c);
+								}
+								// Current object is a function call
+								else if((c == CHAR_FUNCCALL_OB && isval)) {
+									if((functionsAsLiterals)) beginLiteral();
+									else 					  beginFunctionCall();
+								}
+								// Current object is an array or an object
+								else {
+									beginCollection(c == CHAR_ARRAY_OB);
+								}
+							}
+							// Item name delimiter or annotation sign
+							else if((c == CHAR_NV_DELIMITER    ||
+									 c == CHAR_ANNOTATION_SIGN ||
+									 (annsval[annsdepth] &&
+										c == CHAR_ANNOTATION_NV_DELIMITER))) {
+								if((c == CHAR_ANNOTATION_SIGN && isval))
+									lobjName = tempName;
+								tempName = tempName();
+								bann  	 = c == CHAR_ANNOTATION_SIGN;
+								isval 	 = c != CHAR_ANNOTATION_SIGN || array;
+								if(!annsval[annsdepth]
+										&& !tempName.isEmpty())
+									lastName = tempName;
+								clearTemp();
+							}
+							// Item delimiter
+							else if((c == CHAR_ITEM_DELIMITER ||
+									(annsval[annsdepth] &&
+										c == CHAR_ANNOTATION_ITEM_DELIMITER) ||
+									(function &&
+										c == CHAR_FUNCCALL_ARGS_DELIMITER))) {
+								addValue();
+								isval = array;
+							}
+							// Closing brackets
+							else if(c == CHAR_OBJECT_CB 	||
+									c == CHAR_ARRAY_CB  	||
+									c == CHAR_ANNOTATION_CB ||
+									c == CHAR_FUNCCALL_CB) {
+								// Add last item in an object, or an array, if needed
+								addValue();
+								isval = array;
+								endParent(c);
+							}
+							// All other characters should be added
+							else cadd = true;
+						}
+					}
+				}
+			}
+		}
+		// Add the current character if it can be added
+		if((cadd)) {
+			appendTemp(c);
+			// Only whitespace characters, or characters that may be such,
+			// outside quotes can be removed by the formatting
+			if((!indq && !insq && (c <= CHAR_SPACE || c >= 0x80)))
+				tempws = true;
+		}
+	}
+	
+	private final void appendTemp(int c) {
+		if((tlen == temp.length))
+			temp = Arrays.copyOf(temp, tlen << 1);
+		temp[tlen++] = (char) c;
+		if((c >= 0x80))
+			tnascii = true;
+	}
+	
+	/**
+	 * Gets a slice of the retained content that contains the temporary
+	 * characters, which have to end just before the current character.
+	 * Returns {@code null}, if there is no such slice.*/
+	private final SSDSlice tempSlice() {
+		int len = tlen;
+		int off = cpos - len;
+		if((off < 0))
+			return null;
+		char[] t = temp;
+		if((schars != null)) {
+			String s = schars;
+			if((cpos > s.length()))
+				return null;
+			for(int i = 0; i < len; ++i) {
+				if((s.charAt(off + i) != t[i]))
+					return null;
+			}
+			return new SSDSlice(s, off, len);
+		}
+		byte[] b = sbytes;
+		if((tnascii || cpos > b.length))
+			return null;
+		for(int i = 0; i < len; ++i) {
+			if((b[off + i] != t[i]))
+				return null;
+		}
+		return new SSDSlice(b, off, len);
+	}
+	
+	private final String tempString() {
+		if(!utf8 || !tnascii)
+			return new String(temp, 0, tlen);
+		// Decode the stored bytes
+		byte[] b = tbytes;
+		if((b == null || b.length < tlen))
+			b = tbytes = new byte[temp.length];
+		for(int i = 0, l = tlen; i < l; ++i)
+			b[i] = (byte) temp[i];
+		return new String(b, 0, tlen, SSDF.CHARSET);
+	}
+	
+	/**
+	 * Gets the temporary string as a name, the repeated names share
+	 * a single instance.*/
+	private final String tempName() {
+		return !utf8 || !tnascii
+					? names.intern(temp, 0, tlen)
+					: names.intern(tempString());
+	}
+	
+	private final void clearTemp() {
+		tlen    = 0;
+		tnascii = false;
+		tempws  = false;
+	}
+	
+	private final void saveTemp() {
+		if((lastContent == null || lastContent.length < tlen))
+			lastContent = new char[temp.length];
+		System.arraycopy(temp, 0, lastContent, 0, tlen);
+		lastContentlen    = tlen;
+		lastContentws     = tempws;
+		lastContentnascii = tnascii;
+	}
+	
+	private final void endComment() {
+		if(!discardComments) {
+			String content = tempString();
+			content = content.substring(0, content.length()-1);
+			emit(Event.COMMENT, null, content).flag = cmtoneline;
+		}
+		clearTemp();
+		if((lastContentlen > 0)) {
+			System.arraycopy(lastContent, 0, temp, 0, lastContentlen);
+			tlen    = lastContentlen;
+			tempws  = lastContentws;
+			tnascii = lastContentnascii;
+		}
+		cmtoneline     = false;
+		lastContentlen = 0;
+	}
+	
+	private final void resolveTempName() {
+		// Set unspecified temporary name if possible
+		if((tempName == null)) {
+			// Annotation (has to be first)
+			if((annsval[annsdepth])) {
+				tempName = WORD_ANNOTATION_DEFAULT;
+			}
+			// Array or function
+			else if((array || function)) {
+				tempName = SSDInterner.index(counter++);
+			}
+			// Annotation specified after item name
+			else if((lobjName != null)) {
+				tempName = lobjName;
+				lobjName = null; // Only one use
+			}
+			// Other cases
+			else {
+				tempName = lastName;
+			}
+		}
+	}
+	
+	/**
+	 * Removes the annotations that belong to the currently read item and
+	 * returns the namespace of the first Namespace annotation, if any.*/
+	private final Frame pollAnnotations(Token token) {
+		int ai = annsval[annsdepth]
+					? anns.size() - annscnt[annsdepth]
+					: anns.size();
+		Frame ns = null;
+		token.count = discardAnnotations ? 0 : Math.max(ai, 0);
+		// Annotations are removed in reversed order
+		while(--ai >= 0) {
+			Frame f = anns.pop();
+			if((f.isns)) ns = f;
+			release(f);
+		}
+		return ns;
+	}
+	
+	private final void emitName(String name) {
+		Frame p = parents.peek();
+		if((p != null && (p.kind == KIND_OBJECT || p.kind == KIND_ANNOTATION)))
+			emit(Event.NAME, name, null);
+	}
+	
+	private final void setNamespace(Token t) {
+		Frame p = parents.peek();
+		if((p != null && p.isns && WORD_ANNOTATION_DEFAULT.equals(t.name))) {
+			p.namespace = t.event == Event.VALUE
+							? object(t).stringValue()
+							: null;
+		}
+	}
+	
+	private final void beginAnnotation(int c) {
+		// Get the annotation name
+		tempName = tempName();
+		// Clear the temporary string
+		clearTemp();
+		Frame annFrame = frame(KIND_ANNOTATION, tempName);
+		anns.push(annFrame.retain());
+		if(!discardAnnotations)
+			emit(Event.ANNOTATION, tempName, null);
+		// If the annotation has some items
+		if(!(bann && c == CHAR_SPACE)) {
+			// Add the annotation to the parents
+			pushParent(annFrame);
+			++annsparents;
+			array = false;
+			if((++annsdepth == annsval.length)) {
+				annsval = Arrays.copyOf(annsval, annsdepth << 1);
+				annscnt = Arrays.copyOf(annscnt, annsdepth << 1);
+			}
+			annsval[annsdepth] = true;
+			annscnt[annsdepth] = anns.size();
+		} else if(!discardAnnotations) {
+			// Annotation without items is closed right away
+			emit(Event.END, null, null);
+		}
+		bann 	 = false;
+		tempName = null;
+	}
+	
+	private final void beginFunctionCall() {
+		// Check the function call's name first
+		resolveTempName();
+		// Get the function call's name
+		String funcName = tempName();
+		// Clear the temporary string
+		clearTemp();
+		emitName(tempName);
+		Frame ns = pollAnnotations(emit(Event.FUNCTION_CALL, tempName, funcName));
+		String namespace = ns != null ? ns.namespace : SSDFunctionCall.FUNCTION_PREFIX;
+		// Add the function call to the parents
+		pushParent(frame(KIND_FUNCTION, tempName));
+		array 	  = true;
+		function  = true;
+		isfsimple = SSDF.func_isContentSimple(funcName, namespace);
+		if(isfsimple) ctfsimple = 1;
+	}
+	
+	/**
+	 * Reads the function call as a part of the current value, including
+	 * its brackets.*/
+	private final void beginLiteral() {
+		appendTemp(CHAR_FUNCCALL_OB);
+		literal   = true;
+		isfsimple = true;
+		ctfsimple = 1;
+	}
+	
+	private final void beginCollection(boolean isarr) {
+		resolveTempName();
+		// The main object has no name
+		String name = parents.isEmpty() ? null : tempName;
+		if((name != null))
+			emitName(name);
+		Token t = emit(isarr ? Event.START_ARRAY : Event.START_OBJECT, name, null);
+		if((name != null))
+			setNamespace(t);
+		pollAnnotations(t);
+		// Skip the content of nested collections, the main one is always read
+		if((lazy && !parents.isEmpty() && !function && !annsval[annsdepth])) {
+			t.range = new Range(isval, lastName, lobjName);
+			skipped = t;
+		}
+		// Add the object to the parents
+		pushParent(frame(isarr ? KIND_ARRAY : KIND_OBJECT, name));
+		array 	 = isarr;
+		// Reset the temporary name
+		tempName = null;
+	}
+	
+	private final void addValue() {
+		if((tlen > 0)) {
+			resolveTempName();
+			if((tempName != null)) {
+				emitName(tempName);
+				// Classify the value while it is read, numbers are parsed
+				// directly from the temporary characters
+				SSDType  type   = tempws ? null : SSDType.match(tchars);
+				SSDValue number = null;
+				SSDSlice slice  = null;
+				String   value  = null;
+				if((type == SSDType.INTEGER || type == SSDType.DECIMAL)) {
+					number = SSDValue.number(type, tchars, 0, tlen);
+				} else if((type == SSDType.STRING
+							&& (schars != null || sbytes != null)
+							&& (noVariables || SSDType.recognize(tchars, 0, tlen) == type))) {
+					slice = tempSlice();
+				}
+				if((number == null && slice == null)) {
+					value = tempString();
+					type  = noVariables
+								? SSDType.recognizeLiteral(value)
+								: SSDType.recognize(value);
+				}
+				Token t = emit(Event.VALUE, tempName, value);
+				t.flag   = tempws;
+				t.type   = type;
+				t.number = number;
+				t.slice  = slice;
+				setNamespace(t);
+				pollAnnotations(t);
+				clearTemp();
+				tempName = null;
+			}
+		}
+	}
+	
+	private final void endParent(int c) {
+		// Remove the currently used parent
+		Frame par = parents.pop();
+		String name = par.name;
+		int    kind = par.kind;
+		// Continue counting items of the parent
+		counter = par.counter;
+		release(par);
+		// The main object was removed
+		if((parents.isEmpty()
+				&& name == null)) {
+			emit(Event.END, null, null);
+			closed = true;
+			return;
+		}
+		// Add the constructed function, cannot be argument's annotation
+		emit(Event.END, null, null).flag = function && !annsval[annsdepth];
+		if((kind == KIND_ANNOTATION))
+			--annsparents;
+		if((function && !annsval[annsdepth]))
+			isfsimple = false; // important
+		// Set the current parent
+		Frame parent = parents.peek();
+		array = parent != null && parent.kind == KIND_ARRAY;
+		if((function
+				// Cannot be argument's annotation
+				&& !annsval[annsdepth])) {
+			if((c == CHAR_FUNCCALL_CB))
+				function = parent != null && parent.kind == KIND_FUNCTION;
+		} else {
+			if((annsval[annsdepth] && c == CHAR_ANNOTATION_CB))
+				--annsdepth;
+		}
+	}
+	
+	private final Frame frame(int kind, String name) {
+		Frame f = nframes > 0 ? frames[--nframes] : new Frame();
+		f.kind 		= kind;
+		f.name 		= name;
+		f.isns 		= kind == KIND_ANNOTATION
+						&& name.equalsIgnoreCase(SSDFunctionCall.ANNOTATION_NAMESPACE);
+		f.namespace = null;
+		return f;
+	}
+	
+	private final void pushParent(Frame f) {
+		// Items of each parent are counted from zero
+		f.counter = counter;
+		counter   = 0;
+		parents.push(f.retain());
+	}
+	
+	private final void release(Frame f) {
+		// Annotation frames can be both in the annotations and the parents
+		if((--f.refs == 0)) {
+			if((nframes == frames.length))
+				frames = Arrays.copyOf(frames, nframes << 1);
+			frames[nframes++] = f;
+		}
+	}
+	
+	private static final class Frame {
+		
+		int    kind;
+		String name;
+		// Whether the frame is a Namespace annotation
+		boolean isns;
+		String namespace;
+		// Number of the stacks that contain the frame
+		int refs;
+		// Counter of items of the outer parent
+		int counter;
+		
+		Frame retain() {
+			++refs;
+			return this;
+		}
+	}
+	
+	/**
+	 * Position of a skipped collection in the content, with the reading
+	 * state at its start.*/
+	static final class Range {
+		
+		int start;
+		int end;
+		final boolean isval;
+		final String  lastName;
+		final String  lobjName;
+		
+		Range(boolean isval, String lastName, String lobjName) {
+			this.isval 	  = isval;
+			this.lastName = lastName;
+			this.lobjName = lobjName;
+		}
+	}
+	
+	/**
+	 * View of the temporary characters, numbers consist of ASCII characters
+	 * only, therefore the stored bytes are the same as the decoded characters.*/
+	private final class TempChars implements CharSequence {
+		
+		@Override
+		public int length() {
+			return tlen;
+		}
+		
+		@Override
+		public char charAt(int index) {
+			return temp[index];
+		}
+		
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return new String(temp, start, end - start);
+		}
+		
+		@Override
+		public String toString() {
+			return tempString();
+		}
+	}
+	
+	private static final class Token {
+		
+		Event   event;
+		String  name;
+		String  value;
+		boolean flag;
+		int     count;
+		Range   range;
+		SSDType type;
+		SSDValue number;
+		SSDSlice slice;
+		
+		void set(Token t) {
+			event = t.event;
+			name  = t.name;
+			value = t.value;
+			flag  = t.flag;
+			count = t.count;
+			range = t.range;
+			type  = t.type;
+			number = t.number;
+			slice  = t.slice;
+		}
+		
+		void clear() {
+			event = null;
+			name  = null;
+			value = null;
+			flag  = false;
+			count = 0;
+			range = null;
+			type  = null;
+			number = null;
+			slice  = null;
+		}
+	}
+}
\ No newline at end of file
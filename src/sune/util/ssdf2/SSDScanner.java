@@ -0,0 +1,116 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDF.CHAR_ANNOTATION_CB;
+import static sune.util.ssdf2.SSDF.CHAR_ANNOTATION_ITEM_DELIMITER;
+import static sune.util.ssdf2.SSDF.CHAR_ANNOTATION_NV_DELIMITER;
+import static sune.util.ssdf2.SSDF.CHAR_ANNOTATION_OB;
+import static sune.util.ssdf2.SSDF.CHAR_ANNOTATION_SIGN;
+import static sune.util.ssdf2.SSDF.CHAR_ARRAY_CB;
+import static sune.util.ssdf2.SSDF.CHAR_ARRAY_OB;
+import static sune.util.ssdf2.SSDF.CHAR_COMMENT_FIRST;
+import static sune.util.ssdf2.SSDF.CHAR_COMMENT_MULTIPLE_LINES;
+import static sune.util.ssdf2.SSDF.CHAR_COMMENT_ONE_LINE;
+import static sune.util.ssdf2.SSDF.CHAR_DOUBLE_QUOTES;
+import static sune.util.ssdf2.SSDF.CHAR_ESCAPE;
+import static sune.util.ssdf2.SSDF.CHAR_FUNCCALL_ARGS_DELIMITER;
+import static sune.util.ssdf2.SSDF.CHAR_FUNCCALL_CB;
+import static sune.util.ssdf2.SSDF.CHAR_FUNCCALL_OB;
+import static sune.util.ssdf2.SSDF.CHAR_ITEM_DELIMITER;
+import static sune.util.ssdf2.SSDF.CHAR_NV_DELIMITER;
+import static sune.util.ssdf2.SSDF.CHAR_OBJECT_CB;
+import static sune.util.ssdf2.SSDF.CHAR_OBJECT_OB;
+import static sune.util.ssdf2.SSDF.CHAR_SINGLE_QUOTES;
+import static sune.util.ssdf2.SSDF.CHAR_SPACE;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Scanning of runs of characters that do not change the reading state, so
+ * that they can be skipped, or copied, at once, instead of being read one by
+ * one. Bytes are scanned by words of eight bytes, the bytes of a word are
+ * compared all at once (SWAR, SIMD within a register).*/
+final class SSDScanner {
+	
+	// Characters that are only added to the current value or name, when
+	// they are outside quotes and comments
+	private static final boolean[] PLAIN = new boolean[128];
+	static {
+		for(int c = CHAR_SPACE + 1; c < 128; ++c)
+			PLAIN[c] = true;
+		char[] special = {
+			CHAR_OBJECT_OB, CHAR_OBJECT_CB, CHAR_ARRAY_OB, CHAR_ARRAY_CB,
+			CHAR_NV_DELIMITER, CHAR_ITEM_DELIMITER, CHAR_DOUBLE_QUOTES,
+			CHAR_SINGLE_QUOTES, CHAR_ESCAPE, CHAR_ANNOTATION_SIGN,
+			CHAR_ANNOTATION_OB, CHAR_ANNOTATION_CB, CHAR_ANNOTATION_NV_DELIMITER,
+			CHAR_ANNOTATION_ITEM_DELIMITER, CHAR_FUNCCALL_OB, CHAR_FUNCCALL_CB,
+			CHAR_FUNCCALL_ARGS_DELIMITER, CHAR_COMMENT_FIRST, CHAR_COMMENT_ONE_LINE,
+			CHAR_COMMENT_MULTIPLE_LINES
+		};
+		for(char c : special)
+			PLAIN[c] = false;
+	}
+	
+	// Masks of the lowest and the highest bits of all bytes of a word
+	private static final long LOW_BITS  = 0x0101010101010101L;
+	private static final long HIGH_BITS = 0x8080808080808080L;
+	
+	// Forbid anyone to create an instance of this class
+	private SSDScanner() {
+	}
+	
+	/**
+	 * Gets position of the first character, starting at the given position,
+	 * that is not a plain character, i.e. it may change the reading state.*/
+	static final int plainEnd(char[] b, int p, int l) {
+		for(int c; p < l && (c = b[p]) < 128 && PLAIN[c]; ++p);
+		return p;
+	}
+	
+	static final int plainEnd(ByteBuffer b, int p, int l) {
+		for(int c; p < l && (c = b.get(p)) >= 0 && PLAIN[c]; ++p);
+		return p;
+	}
+	
+	/**
+	 * Gets position of the first of the two given characters, starting at
+	 * the given position.*/
+	static final int find(char[] b, int p, int l, int x, int y) {
+		for(int c; p < l && (c = b[p]) != x && c != y; ++p);
+		return p;
+	}
+	
+	/**
+	 * Gets position of the first of the two given ASCII characters, starting
+	 * at the given position. The bytes are compared by words, only the word
+	 * that contains any of the characters is then compared byte by byte.*/
+	static final int find(ByteBuffer b, int p, int l, int x, int y) {
+		long mx = x * LOW_BITS;
+		long my = y * LOW_BITS;
+		for(long w; p + 8 <= l; p += 8) {
+			w = b.getLong(p);
+			if((hasZero(w ^ mx) || hasZero(w ^ my)))
+				break;
+		}
+		for(int c; p < l && (c = b.get(p)) != x && c != y; ++p);
+		return p;
+	}
+	
+	/**
+	 * Checks whether any of the bytes at the given range is not ASCII.*/
+	static final boolean hasNonAscii(ByteBuffer b, int p, int l) {
+		for(; p + 8 <= l; p += 8) {
+			if((b.getLong(p) & HIGH_BITS) != 0L)
+				return true;
+		}
+		for(; p < l; ++p) {
+			if((b.get(p) < 0))
+				return true;
+		}
+		return false;
+	}
+	
+	// Whether any of the bytes of the given word is zero
+	private static final boolean hasZero(long w) {
+		return ((w - LOW_BITS) & ~w & HIGH_BITS) != 0L;
+	}
+}
\ No newline at end of file
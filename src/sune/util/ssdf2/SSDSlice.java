@@ -0,0 +1,58 @@
+package sune.util.ssdf2;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * View of a range of characters of a retained content, so that a value does
+ * not have to be copied while reading. The content is either a string, or an
+ * array of bytes of which the viewed range contains only ASCII characters.*/
+final class SSDSlice implements CharSequence {
+	
+	private final String chars;
+	private final byte[] bytes;
+	private final int 	 off;
+	private final int 	 len;
+	
+	SSDSlice(String chars, int off, int len) {
+		this(chars, null, off, len);
+	}
+	
+	SSDSlice(byte[] bytes, int off, int len) {
+		this(null, bytes, off, len);
+	}
+	
+	private SSDSlice(String chars, byte[] bytes, int off, int len) {
+		this.chars = chars;
+		this.bytes = bytes;
+		this.off   = off;
+		this.len   = len;
+	}
+	
+	@Override
+	public int length() {
+		return len;
+	}
+	
+	@Override
+	public char charAt(int index) {
+		if((index < 0 || index >= len))
+			throw new IndexOutOfBoundsException("Index: " + index);
+		return chars != null
+					? chars.charAt(off + index)
+					: (char) bytes[off + index];
+	}
+	
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if((start < 0 || end > len || start > end))
+			throw new IndexOutOfBoundsException("Range: " + start + ", " + end);
+		return new SSDSlice(chars, bytes, off + start, end - start);
+	}
+	
+	@Override
+	public String toString() {
+		return chars != null
+					? chars.substring(off, off + len)
+					: new String(bytes, off, len, StandardCharsets.US_ASCII);
+	}
+}
\ No newline at end of file
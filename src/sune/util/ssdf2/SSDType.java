@@ -9,8 +9,6 @@ import static sune.util.ssdf2.SSDF.WORD_FALSE;
 import static sune.util.ssdf2.SSDF.WORD_NULL;
 import static sune.util.ssdf2.SSDF.WORD_TRUE;
 
-import java.util.regex.Pattern;
-
 public enum SSDType {
 	
 	NULL("^(" + WORD_NULL + ")$") {
@@ -120,20 +118,23 @@ public enum SSDType {
 		this.regex = regex;
 	}
 	
-	// Type recognition using RegExp
+	// Type recognition of values that are not checked for variables
+	static final SSDType recognizeLiteral(String value) {
+		SSDType type = match(value);
+		return type != null ? type : UNKNOWN;
+	}
+	
+	// Type recognition without regular expressions
 	public static final SSDType recognize(String value) {
-		boolean tpstr = false;
-		String  regex;
-		for(SSDType type : values()) {
-			if((regex = type.regex) != null
-					&& Pattern.matches(regex, value)) {
-				if((type == STRING)) {
-					tpstr = true;
-					break;
-				}
-				return type;
-			}
-		}
+		return recognize(value, 0, value.length());
+	}
+	
+	// Type recognition of the characters at the given range
+	static final SSDType recognize(CharSequence value, int start, int end) {
+		SSDType type = match(value, start, end);
+		if((type != null && type != STRING))
+			return type;
+		boolean tpstr = type == STRING;
 		// Quotes
 		boolean indq = false;
 		boolean insq = false;
@@ -145,9 +146,8 @@ public enum SSDType {
 		boolean was = false;
 		boolean con = false;
 		// Check whether the value contains a variable
-		char[] chars = value.toCharArray();
-		for(int i = 0, l = chars.length, c; i < l; ++i) {
-			c = chars[i];
+		for(int i = start, c; i < end; ++i) {
+			c = value.charAt(i);
 			// Escape logic
 			if(escaped && --escape == 0) 	 escaped = false;
 			if(c == CHAR_ESCAPE && !escaped) escaped = (escape = 2) > 0; else
@@ -187,6 +187,82 @@ public enum SSDType {
 		return was ? (con ? UNKNOWN : STRING_VAR) : (tpstr ? STRING : UNKNOWN);
 	}
 	
+	/**
+	 * Gets the type whose regular expression matches the given value, or
+	 * {@code null}, if there is no such type. The value is classified by its
+	 * first character, and then checked character by character.*/
+	static final SSDType match(CharSequence value) {
+		return match(value, 0, value.length());
+	}
+	
+	/**
+	 * Gets the type whose regular expression matches the characters at
+	 * the given range, or {@code null}, if there is no such type.*/
+	static final SSDType match(CharSequence value, int start, int end) {
+		if((start >= end))
+			return null;
+		switch(value.charAt(start)) {
+			case 'n': return isWord(value, start, end, WORD_NULL)  ? NULL    : null;
+			case 't': return isWord(value, start, end, WORD_TRUE)  ? BOOLEAN : null;
+			case 'f': return isWord(value, start, end, WORD_FALSE) ? BOOLEAN : null;
+			case CHAR_DOUBLE_QUOTES:
+			case CHAR_SINGLE_QUOTES:
+			case '|':
+				return isQuoted(value, start, end) ? STRING : null;
+			default:
+				return matchNumber(value, start, end);
+		}
+	}
+	
+	private static final boolean isWord(CharSequence value, int start, int end, String word) {
+		if((end - start != word.length()))
+			return false;
+		for(int i = start, k = 0; i < end; ++i, ++k) {
+			if((value.charAt(i) != word.charAt(k)))
+				return false;
+		}
+		return true;
+	}
+	
+	// Matches the INTEGER and DECIMAL regular expressions
+	private static final SSDType matchNumber(CharSequence value, int start, int end) {
+		int i = start, c = value.charAt(i);
+		// Optional sign
+		if((c == '+' || c == '-'))
+			++i;
+		int idigits = 0;
+		int fdigits = 0;
+		boolean dot = false;
+		for(; i < end; ++i) {
+			c = value.charAt(i);
+			if((c >= '0' && c <= '9')) {
+				if(dot) ++fdigits; else ++idigits;
+			} else if((c == '.' && !dot)) {
+				dot = true;
+			} else {
+				return null;
+			}
+		}
+		if(!dot) return idigits > 0 ? INTEGER : null;
+		return idigits > 0 || fdigits > 0 ? DECIMAL : null;
+	}
+	
+	// Matches the STRING regular expression, the value has to start and end
+	// with a quote (or the '|' character) and cannot contain a line terminator
+	private static final boolean isQuoted(CharSequence value, int start, int end) {
+		if((end - start < 2))
+			return false;
+		int c = value.charAt(end - 1);
+		if((c != CHAR_DOUBLE_QUOTES && c != CHAR_SINGLE_QUOTES && c != '|'))
+			return false;
+		for(int i = start + 1, l = end - 1; i < l; ++i) {
+			if((c = value.charAt(i)) == '\n' || c == '\r'
+					|| c == '\u0085' || c == '\u2028' || c == '\u2029')
+				return false;
+		}
+		return true;
+	}
+	
 	// Type recognition using classes
 	public static final SSDType recognize(Object value) {
 		if((value != null)) {
@@ -211,14 +287,19 @@ public enum SSDType {
 	}
 	
 	SSDObject createObject(SSDNode parent, String name, String value) {
-		if(!Pattern.matches(regex, value)) value = fixValue(value);
-		return new SSDObject(parent, name, this, new SSDValue(value), format(value));
+		if(!matches(value)) value = fixValue(value);
+		return new SSDObject(parent, name, this, SSDValue.withText(format(value), value));
 	}
 	
 	String fixValue(String value) {
 		return value;
 	}
 	
+	// Types without a regular expression match every value
+	boolean matches(String value) {
+		return regex == null || match(value) == this;
+	}
+	
 	public SSDValue format(String value) {
 		return new SSDValue(value);
 	}
@@ -1,26 +1,224 @@
 package sune.util.ssdf2;
 
+import static sune.util.ssdf2.SSDF.WORD_FALSE;
 import static sune.util.ssdf2.SSDF.WORD_NULL;
+import static sune.util.ssdf2.SSDF.WORD_TRUE;
 
 public final class SSDValue {
 	
-	private final Object value;
+	// Kinds of the primitive value of a number, or of a slice of a content
+	private static final byte KIND_NONE   = 0;
+	private static final byte KIND_LONG   = 1;
+	private static final byte KIND_DOUBLE = 2;
+	private static final byte KIND_STRING = 3;
+	
+	// Exact powers of ten that can be represented by a double
+	private static final double[] POWERS_OF_TEN = {
+		1e0,  1e1,  1e2,  1e3,  1e4,  1e5,  1e6,  1e7,  1e8,  1e9,  1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	// Maximum mantissa that can be represented by a double exactly
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	
+	// Values of the words, their texts are already created, so they can be shared
+	static final SSDValue TRUE  = new SSDValue(WORD_TRUE);
+	static final SSDValue FALSE = new SSDValue(WORD_FALSE);
+	static final SSDValue NULL  = new SSDValue(WORD_NULL);
+	
+	// Text of a number, or of a slice, is created only when needed
+	private Object value;
+	// Text of the value as it is written, only if it differs from the value,
+	// e.g. a quoted string. With compressed references it fits into the padding.
+	private Object text;
+	// Primitive value of a number, parsed once when the number is read
+	private final long bits;
+	private final byte kind;
+	
 	SSDValue(Object value) {
+		this(value, null, 0L, KIND_NONE);
+	}
+	
+	/**
+	 * Creates a value that is written as the given text. The text has to be
+	 * {@code null}, if it is the same as the value.*/
+	SSDValue(Object value, Object text) {
+		this(value, text, 0L, KIND_NONE);
+	}
+	
+	private SSDValue(Object value, Object text, long bits, byte kind) {
 		this.value = value;
+		this.text  = text;
+		this.bits  = bits;
+		this.kind  = kind;
+	}
+	
+	/**
+	 * Gets the given formatted value, that is written as the given text. The
+	 * text is stored only if it differs from the value.*/
+	static final SSDValue withText(SSDValue value, String text) {
+		Object v = value.value();
+		return text.equals(v) ? value : new SSDValue(v, text);
+	}
+	
+	static final SSDValue of(long value) {
+		return new SSDValue(null, null, value, KIND_LONG);
+	}
+	
+	static final SSDValue of(double value, String text) {
+		return new SSDValue(text, null, Double.doubleToRawLongBits(value), KIND_DOUBLE);
+	}
+	
+	/**
+	 * Creates a value of the number at the given range of characters. The number
+	 * is parsed directly from the characters, the text of an integer that is
+	 * written the same way as {@link Long#toString(long)} would write it is not
+	 * even created until it is needed. Returns {@code null}, if the number cannot
+	 * be represented by a primitive value exactly as it is written.*/
+	static final SSDValue number(SSDType type, CharSequence chars, int start, int end) {
+		int i = start, c = chars.charAt(i);
+		boolean neg = c == '-';
+		if((neg || c == '+'))
+			++i;
+		int first = i;
+		if((type == SSDType.INTEGER)) {
+			// Accumulate negatively, so that the minimum value can be parsed
+			long limit = neg ? Long.MIN_VALUE : -Long.MAX_VALUE;
+			long mmin  = limit / 10;
+			long n 	   = 0L;
+			for(int d; i < end; ++i) {
+				d = chars.charAt(i) - '0';
+				if((n < mmin || (n *= 10) < limit + d))
+					return null; // Overflow
+				n -= d;
+			}
+			// Negative zero is not an integer value
+			if((neg && n == 0L))
+				return null;
+			boolean plain = c != '+'
+								&& (end - first == 1 || chars.charAt(first) != '0');
+			return new SSDValue(plain ? null : chars.subSequence(start, end).toString(), null,
+			                    neg ? n : -n, KIND_LONG);
+		}
+		if((type == SSDType.DECIMAL)) {
+			String text = chars.subSequence(start, end).toString();
+			long   m 	= 0L;
+			int    f 	= -1;
+			for(; i < end; ++i) {
+				if((c = chars.charAt(i)) == '.') {
+					f = 0;
+					continue;
+				}
+				if((m = m * 10 + (c - '0')) > MAX_EXACT_MANTISSA) {
+					m = -1L;
+					break;
+				}
+				if((f >= 0)) ++f;
+			}
+			double d;
+			if((m >= 0L && f < POWERS_OF_TEN.length)) {
+				// Both the mantissa and the power of ten are exact, therefore
+				// the quotient is correctly rounded
+				d = f > 0 ? m / POWERS_OF_TEN[f] : m;
+				if((neg)) d = -d;
+			} else {
+				d = Double.parseDouble(text);
+			}
+			return new SSDValue(text, null, Double.doubleToRawLongBits(d), KIND_DOUBLE);
+		}
+		return null;
+	}
+	
+	/**
+	 * Creates a value of the quoted string of the given slice, that is written
+	 * as the slice itself. The quotes are removed and the string is unescaped
+	 * only when needed.*/
+	static final SSDValue string(SSDSlice slice) {
+		return new SSDValue(slice, slice, 0L, KIND_STRING);
+	}
+	
+	// Whether the value is an integer that is written the same way as
+	// Long.toString(long) would write it
+	final boolean isPlainLong() {
+		return kind == KIND_LONG && value == null;
+	}
+	
+	// Whether the value is a decimal without the plus sign, regular objects
+	// write the sign separately
+	final boolean isPlainDouble() {
+		return kind == KIND_DOUBLE && ((String) value).charAt(0) != '+';
+	}
+	
+	private final Object value0() {
+		Object v = value;
+		if((v == null && kind == KIND_LONG))
+			value = v = Long.toString(bits);
+		else if((v instanceof SSDSlice))
+			value = v = SSDType.STRING.format(v.toString()).value();
+		return v;
+	}
+	
+	/**
+	 * Gets the text of the value as it is written.*/
+	final String text() {
+		Object t = text;
+		if((t == null))
+			return toString();
+		if((t instanceof SSDSlice))
+			text = t = t.toString();
+		return (String) t;
+	}
+	
+	/**
+	 * Gets the value as it is written, i.e. this value, or a new value of its
+	 * text, if the text differs.*/
+	final SSDValue written() {
+		return text == null ? this : new SSDValue(text());
 	}
 	
 	public final boolean booleanValue() { return Boolean.valueOf(toString()); }
-	public final byte byteValue()       { return Byte   .valueOf(toString()); }
-	public final short shortValue()     { return Short  .valueOf(toString()); }
-	public final int intValue()         { return Integer.valueOf(toString()); }
-	public final long longValue()       { return Long   .valueOf(toString()); }
-	public final float floatValue()     { return Float  .valueOf(toString()); }
-	public final double doubleValue()   { return Double .valueOf(toString()); }
-	public final String stringValue()   { return toString();                  }
-	public final Object value()         { return value;                       }
+	
+	public final byte byteValue() {
+		return kind == KIND_LONG && (byte) bits == bits
+					? (byte) bits
+					: Byte.valueOf(toString());
+	}
+	
+	public final short shortValue() {
+		return kind == KIND_LONG && (short) bits == bits
+					? (short) bits
+					: Short.valueOf(toString());
+	}
+	
+	public final int intValue() {
+		return kind == KIND_LONG && (int) bits == bits
+					? (int) bits
+					: Integer.valueOf(toString());
+	}
+	
+	public final long longValue() {
+		return kind == KIND_LONG
+					? bits
+					: Long.valueOf(toString());
+	}
+	
+	public final float floatValue() {
+		return kind == KIND_LONG
+					? (float) bits
+					: Float.valueOf(toString());
+	}
+	
+	public final double doubleValue() {
+		return kind == KIND_LONG   ? (double) bits :
+			   kind == KIND_DOUBLE ? Double.longBitsToDouble(bits) :
+									 Double.valueOf(toString());
+	}
+	
+	public final String stringValue()   { return toString(); }
+	public final Object value()         { return value0();   }
 	
 	@Override
 	public final String toString() {
-		return value == null ? WORD_NULL : value.toString();
+		Object v = value0();
+		return v == null ? WORD_NULL : v.toString();
 	}
 }
\ No newline at end of file
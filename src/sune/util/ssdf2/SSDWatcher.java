@@ -0,0 +1,269 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDF.CHAR_NAME_DELIMITER;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Watcher of a file that reads the file again, whenever it is changed. The
+ * file is read in a background thread and the new version is compared to the
+ * current one, only when some of its nodes have actually changed, the new
+ * version replaces the current one and the listeners are notified. Versions
+ * that cannot be read, e.g. since the file is still being written or it has
+ * been deleted, do not replace the current one, the error listeners are
+ * notified instead. The versions are frozen, so that they can be shared by
+ * any number of threads.*/
+public final class SSDWatcher implements Closeable {
+	
+	private final Path path;
+	private final SSDParseOptions options;
+	private final WatchService service;
+	private final Thread thread;
+	private final AtomicReference<SSDCollection> current;
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	private final List<ErrorListener> errorListeners = new CopyOnWriteArrayList<>();
+	private volatile boolean closed;
+	
+	public SSDWatcher(Path path) throws IOException {
+		this(path, SSDParseOptions.DEFAULT);
+	}
+	
+	/**
+	 * Creates a new watcher of the given file. The file is read at once, the
+	 * changes are watched until the watcher is closed.*/
+	public SSDWatcher(Path path, SSDParseOptions options) throws IOException {
+		if((path == null)) {
+			throw new IllegalArgumentException("Path cannot be null");
+		}
+		if((options == null)) {
+			throw new IllegalArgumentException("Options cannot be null");
+		}
+		this.path 	 = path.toAbsolutePath().normalize();
+		this.options = options;
+		this.current = new AtomicReference<>(read());
+		// Files cannot be watched, only their directories
+		this.service = FileSystems.getDefault().newWatchService();
+		try {
+			this.path.getParent().register(service,
+				StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY,
+				StandardWatchEventKinds.ENTRY_DELETE);
+		} catch(IOException ex) {
+			service.close();
+			throw ex;
+		}
+		this.thread = new Thread(this::watch, "SSDWatcher-" + this.path.getFileName());
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+	
+	private final void watch() {
+		Path name = path.getFileName();
+		try {
+			for(WatchKey key;;) {
+				key = service.take();
+				boolean changed = false;
+				for(WatchEvent<?> event : key.pollEvents()) {
+					// Some events may have been lost, check the file anyway
+					if((event.kind() == StandardWatchEventKinds.OVERFLOW
+							|| name.equals(event.context())))
+						changed = true;
+				}
+				if((changed && !closed))
+					reload();
+				if(!key.reset())
+					break; // The directory is not accessible anymore
+			}
+		} catch(InterruptedException | ClosedWatchServiceException ex) {
+			// The watcher has been closed
+		}
+	}
+	
+	// The file is not mapped to memory, since it may be truncated by another
+	// process while it is being read
+	private final SSDCollection read() throws IOException {
+		try(InputStream stream = Files.newInputStream(path)) {
+			return SSDF.readFrozen(stream, options);
+		}
+	}
+	
+	private final void reload() {
+		SSDCollection next;
+		try {
+			next = read();
+		} catch(Exception ex) {
+			// The file is not readable now, it may be read on a next change
+			failed(ex);
+			return;
+		}
+		if((next == null)) {
+			failed(new IllegalStateException("The file has no content"));
+			return;
+		}
+		SSDCollection prev = current.get();
+		Set<String> changed = new LinkedHashSet<>();
+		diff("", prev, next, changed);
+		if((changed.isEmpty()))
+			return;
+		current.set(next);
+		Set<String> paths = Collections.unmodifiableSet(changed);
+		for(Listener listener : listeners) {
+			if((closed))
+				return;
+			try {
+				listener.changed(prev, next, paths);
+			} catch(Exception ex) {
+				// Do not let a listener stop the watching
+				failed(ex);
+			}
+		}
+	}
+	
+	private final void failed(Exception error) {
+		for(ErrorListener listener : errorListeners) {
+			try {
+				listener.failed(error);
+			} catch(Exception ex) {
+				// Errors of the error listeners cannot be reported anywhere
+			}
+		}
+	}
+	
+	/**
+	 * Adds names of all nodes that are different in the given two nodes.
+	 * Collections are compared node by node, so that only the deepest changed
+	 * nodes are added, objects are compared by their text.*/
+	static final void diff(String name, SSDNode a, SSDNode b, Set<String> changed) {
+		if((a == null || b == null)) {
+			if((a != b))
+				changed.add(name);
+			return;
+		}
+		if((a.isCollection() != b.isCollection()
+				|| !sameAnnotations(a, b))) {
+			changed.add(name);
+			return;
+		}
+		if((a.isCollection())) {
+			SSDCollection ca = (SSDCollection) a;
+			SSDCollection cb = (SSDCollection) b;
+			if((ca.getType() != cb.getType())) {
+				changed.add(name);
+				return;
+			}
+			String prefix = name.isEmpty() ? name : name + CHAR_NAME_DELIMITER;
+			Map<String, SSDNode> ma = ca.objectMap();
+			Map<String, SSDNode> mb = cb.objectMap();
+			for(Entry<String, SSDNode> e : ma.entrySet())
+				diff(prefix + e.getKey(), e.getValue(), mb.get(e.getKey()), changed);
+			for(Entry<String, SSDNode> e : mb.entrySet()) {
+				if(!ma.containsKey(e.getKey()))
+					changed.add(prefix + e.getKey());
+			}
+			return;
+		}
+		if(!a.toString(true, false, false).equals(b.toString(true, false, false)))
+			changed.add(name);
+	}
+	
+	private static final boolean sameAnnotations(SSDNode a, SSDNode b) {
+		SSDAnnotation[] aa = a.getAnnotations();
+		SSDAnnotation[] ab = b.getAnnotations();
+		if((aa.length != ab.length))
+			return false;
+		for(int i = 0; i < aa.length; ++i) {
+			if(!aa[i].toString(true, false, false).equals(ab[i].toString(true, false, false)))
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Gets the current version of the file. The returned collection is frozen
+	 * and shared, a mutable copy can be created using {@linkplain SSDCollection#thaw()}.*/
+	public SSDCollection get() {
+		return current.get();
+	}
+	
+	public void addListener(Listener listener) {
+		if((listener == null)) {
+			throw new IllegalArgumentException("Listener cannot be null");
+		}
+		listeners.add(listener);
+	}
+	
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+	
+	public void addErrorListener(ErrorListener listener) {
+		if((listener == null)) {
+			throw new IllegalArgumentException("Listener cannot be null");
+		}
+		errorListeners.add(listener);
+	}
+	
+	public void removeErrorListener(ErrorListener listener) {
+		errorListeners.remove(listener);
+	}
+	
+	public Path getPath() {
+		return path;
+	}
+	
+	/**
+	 * Stops the watching. Once this method returns, the file is not read again
+	 * and no listener is notified anymore, unless it is called by a listener
+	 * itself, then only the following listeners are not notified.*/
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		service.close();
+		if((Thread.currentThread() == thread))
+			return;
+		try {
+			thread.join();
+		} catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	@FunctionalInterface
+	public static interface Listener {
+		
+		/**
+		 * Called in the thread of the watcher, after the new version of the file
+		 * has replaced the previous one. The given paths are full names of all
+		 * the nodes that have been added, removed, or changed, the empty name
+		 * stands for the main collection.*/
+		void changed(SSDCollection previous, SSDCollection current, Set<String> paths);
+	}
+	
+	@FunctionalInterface
+	public static interface ErrorListener {
+		
+		/**
+		 * Called in the thread of the watcher, when the changed file cannot be
+		 * read, e.g. since it has been deleted, or when a listener throws an
+		 * exception. The current version of the file is kept.*/
+		void failed(Exception error);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,140 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDAssert.assertEquals;
+import static sune.util.ssdf2.SSDAssert.assertFalse;
+import static sune.util.ssdf2.SSDAssert.assertNull;
+import static sune.util.ssdf2.SSDAssert.assertSame;
+import static sune.util.ssdf2.SSDAssert.assertTrue;
+import static sune.util.ssdf2.SSDAssert.string;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+/**
+ * Tests of the map of array items. The items are stored by their indexes
+ * until a name that is not the next index is put, then they are moved to
+ * a regular map.*/
+final class SSDArrayMapTest {
+	
+	private static final SSDNode[] nodes(int count) {
+		SSDNode[] nodes = new SSDNode[count];
+		for(int i = 0; i < count; ++i)
+			nodes[i] = SSDCollection.empty();
+		return nodes;
+	}
+	
+	private static final SSDArrayMap map(SSDNode... nodes) {
+		SSDArrayMap map = new SSDArrayMap();
+		for(int i = 0; i < nodes.length; ++i)
+			assertNull(map.put(Integer.toString(i), nodes[i]), "Item " + i + " is not new");
+		return map;
+	}
+	
+	static final void testIndexes() {
+		assertEquals(  0, SSDArrayMap.index("0"),          "Wrong index");
+		assertEquals(123, SSDArrayMap.index("123"),        "Wrong index");
+		assertEquals( -1, SSDArrayMap.index("01"),         "Leading zero is an index");
+		assertEquals( -1, SSDArrayMap.index("-1"),         "Negative number is an index");
+		assertEquals( -1, SSDArrayMap.index(""),           "Empty name is an index");
+		assertEquals( -1, SSDArrayMap.index("1a"),         "Name is an index");
+		assertEquals( -1, SSDArrayMap.index("9999999999"), "Overflowing number is an index");
+		assertEquals( -1, SSDArrayMap.index(1),            "Not a string is an index");
+	}
+	
+	static final void testGetAndReplace() {
+		// More items than the initial capacity
+		SSDNode[] nodes = nodes(20);
+		SSDArrayMap map = map(nodes);
+		assertTrue(map.isIndexed(), "Items are not stored by indexes");
+		assertEquals(20, map.size(), "Wrong size");
+		for(int i = 0; i < 20; ++i) {
+			assertSame(nodes[i], map.get(Integer.toString(i)), "Wrong item " + i);
+			assertSame(nodes[i], map.get(i), "Wrong item " + i + " by index");
+		}
+		assertNull(map.get("20"), "Item after the last one exists");
+		assertNull(map.get("x"),  "Named item exists");
+		assertFalse(map.containsKey("20"), "Item after the last one is contained");
+		SSDNode node = SSDCollection.empty();
+		assertSame(nodes[5], map.put("5", node), "Wrong replaced item");
+		assertSame(node, map.get("5"), "Item is not replaced");
+		assertEquals(20, map.size(), "Replacing changed the size");
+	}
+	
+	static final void testRemoveShiftsItems() {
+		SSDNode[] nodes = nodes(4);
+		SSDArrayMap map = map(nodes);
+		assertSame(nodes[1], map.remove("1"), "Wrong removed item");
+		assertNull(map.remove("3"), "Item after the last one is removed");
+		assertEquals(3, map.size(), "Wrong size after removal");
+		assertSame(nodes[0], map.get("0"), "Wrong item before the removed one");
+		assertSame(nodes[2], map.get("1"), "Items are not shifted");
+		assertSame(nodes[3], map.get("2"), "Items are not shifted");
+		assertTrue(map.isIndexed(), "Removal moved the items to a map");
+	}
+	
+	static final void testFallbackToMap() {
+		SSDNode[] nodes = nodes(3);
+		SSDArrayMap map = map(nodes);
+		SSDNode named = SSDCollection.empty();
+		map.put("x", named);
+		assertFalse(map.isIndexed(), "Named item is stored by an index");
+		assertEquals(4, map.size(), "Wrong size of the map");
+		assertSame(nodes[2], map.get("2"), "Item is lost when moved to the map");
+		assertSame(nodes[1], map.get(1),   "Item is lost when moved to the map");
+		assertSame(named, map.get("x"), "Wrong named item");
+		String[] names = map.keySet().toArray(new String[0]);
+		assertEquals("[0, 1, 2, x]", Arrays.toString(names), "Order is not kept");
+		// An index after a gap cannot be stored in the array
+		SSDArrayMap gap = map(nodes(2));
+		gap.put("3", named);
+		assertFalse(gap.isIndexed(), "Item after a gap is stored by an index");
+		assertSame(named, gap.get("3"), "Wrong item after a gap");
+		assertNull(gap.get("2"), "Gap contains an item");
+	}
+	
+	static final void testClearReturnsToIndexes() {
+		SSDArrayMap map = map(nodes(2));
+		map.put("x", SSDCollection.empty());
+		map.clear();
+		assertEquals(0, map.size(), "Map is not cleared");
+		assertTrue(map.isIndexed(), "Cleared map does not store items by indexes");
+		SSDNode node = SSDCollection.empty();
+		map.put("0", node);
+		assertTrue(map.isIndexed(), "First item is not stored by an index");
+		assertSame(node, map.get(0), "Wrong item after clearing");
+	}
+	
+	static final void testIteratorRemove() {
+		SSDNode[] nodes = nodes(5);
+		SSDArrayMap map = map(nodes);
+		int i = 0;
+		for(Iterator<SSDNode> it = map.values().iterator(); it.hasNext(); ++i) {
+			assertSame(nodes[i], it.next(), "Wrong iterated item " + i);
+			if((i % 2 == 0)) it.remove();
+		}
+		assertEquals(5, i, "Not all items are iterated");
+		assertEquals(2, map.size(), "Wrong size after removal");
+		assertSame(nodes[1], map.get("0"), "Wrong item after removal");
+		assertSame(nodes[3], map.get("1"), "Wrong item after removal");
+		i = 0;
+		for(Entry<String, SSDNode> e : map.entrySet()) {
+			assertEquals(Integer.toString(i), e.getKey(), "Wrong name of an entry");
+			assertSame(map.get(i++), e.getValue(), "Wrong value of an entry");
+		}
+	}
+	
+	static final void testArrayCollection() {
+		SSDCollection array = SSDF.read("[ 1, 2, 3, 4 ]");
+		assertTrue(array.objectMap() instanceof SSDArrayMap, "Array does not use the array map");
+		array.add(5);
+		array.remove(1);
+		array.remove(0);
+		assertEquals(3, array.length(), "Wrong length");
+		assertEquals(3, array.getInt(0), "Items are not renumbered");
+		assertEquals(5, array.getInt(2), "Added item is not last");
+		assertEquals(string(SSDF.read("[ 3, 4, 5 ]")), string(array), "Wrong array");
+		String[] names = array.objectMap().keySet().toArray(new String[0]);
+		assertEquals("[0, 1, 2]", Arrays.toString(names), "Items are not renumbered");
+	}
+}
\ No newline at end of file
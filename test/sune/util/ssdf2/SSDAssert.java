@@ -0,0 +1,80 @@
+package sune.util.ssdf2;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Assertions and helpers shared by the tests. A failed assertion throws
+ * an {@linkplain AssertionError}.*/
+final class SSDAssert {
+	
+	// Forbid anyone to create an instance of this class
+	private SSDAssert() {
+	}
+	
+	static final void assertTrue(boolean condition, String message) {
+		if(!condition)
+			throw new AssertionError(message);
+	}
+	
+	static final void assertFalse(boolean condition, String message) {
+		assertTrue(!condition, message);
+	}
+	
+	static final void assertEquals(Object expected, Object actual, String message) {
+		if((expected == null ? actual != null : !expected.equals(actual)))
+			throw new AssertionError(message + ", expected:\n" + expected + "\nbut was:\n" + actual);
+	}
+	
+	static final void assertNull(Object actual, String message) {
+		if((actual != null))
+			throw new AssertionError(message + ", but was:\n" + actual);
+	}
+	
+	static final void assertSame(Object expected, Object actual, String message) {
+		if((expected != actual))
+			throw new AssertionError(message);
+	}
+	
+	static final void assertNotSame(Object unexpected, Object actual, String message) {
+		if((unexpected == actual))
+			throw new AssertionError(message);
+	}
+	
+	/**
+	 * Checks that the given action throws an exception of the given class
+	 * and returns it.*/
+	static final <T extends Throwable> T assertThrows(Class<T> clazz, Action action, String message) {
+		try {
+			action.run();
+		} catch(Throwable ex) {
+			if((clazz.isInstance(ex)))
+				return clazz.cast(ex);
+			throw new AssertionError(message + ", unexpected exception: " + ex, ex);
+		}
+		throw new AssertionError(message + ", nothing has been thrown");
+	}
+	
+	/**
+	 * Gets the given collection as a string, including its comments.*/
+	static final String string(SSDCollection collection) {
+		return collection.toString(false, false, true);
+	}
+	
+	/**
+	 * Creates a temporary file with the given content. The file is deleted
+	 * when the JVM exits, unless it is deleted sooner.*/
+	static final Path file(String content) throws IOException {
+		Path file = Files.createTempFile("ssdf2", ".ssdf");
+		file.toFile().deleteOnExit();
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+	
+	@FunctionalInterface
+	static interface Action {
+		void run() throws Exception;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDAssert.assertEquals;
+import static sune.util.ssdf2.SSDAssert.assertThrows;
+import static sune.util.ssdf2.SSDAssert.assertTrue;
+import static sune.util.ssdf2.SSDAssert.file;
+import static sune.util.ssdf2.SSDAssert.string;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests of asynchronous reading and writing of files. Failures have to be
+ * reported by the returned futures, never thrown to the caller.*/
+final class SSDAsyncTest {
+	
+	private static final ExecutorService executor() {
+		return Executors.newFixedThreadPool(2, (r) -> {
+			Thread thread = new Thread(r, "ssdf2-async-test");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	private static final <T> T get(CompletableFuture<T> future) throws Exception {
+		return future.get(30L, TimeUnit.SECONDS);
+	}
+	
+	// Gets the cause of the failure of the given future
+	private static final Throwable failure(CompletableFuture<?> future) {
+		return assertThrows(ExecutionException.class, () -> get(future), "Future has not failed").getCause();
+	}
+	
+	static final void testWriteAndReadBack() throws Exception {
+		// Large enough not to be read by a single read
+		SSDCollection data = SSDCollection.empty();
+		for(int i = 0; i < 20000; ++i)
+			data.set("item" + i, "value of the item " + i);
+		Path file = file("");
+		ExecutorService executor = executor();
+		try {
+			get(data.writeAsync(file, executor));
+			assertEquals(data.toString(), new String(Files.readAllBytes(file), SSDF.CHARSET), "Wrong written content");
+			SSDCollection read = get(SSDF.readAsync(file, SSDParseOptions.DEFAULT, executor));
+			assertEquals(string(data), string(read), "Read collection differs");
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	static final void testDefaultPool() throws Exception {
+		Path file = file("{ a: 1 /* c */ }");
+		assertEquals(string(SSDF.read(file)), string(get(SSDF.readAsync(file))), "Read collection differs");
+		SSDCollection empty = SSDCollection.empty();
+		get(empty.writeAsync(file));
+		assertEquals(empty.toString(), new String(Files.readAllBytes(file), SSDF.CHARSET), "Wrong written content");
+	}
+	
+	static final void testMissingFile() {
+		Path missing = Paths.get(System.getProperty("java.io.tmpdir"), "ssdf2-missing", "missing.ssdf");
+		Throwable cause = failure(SSDF.readAsync(missing));
+		assertTrue(cause instanceof IllegalStateException, "Wrong exception: " + cause);
+		assertTrue(cause.getCause() instanceof NoSuchFileException, "Cause is not kept: " + cause.getCause());
+		failure(SSDCollection.empty().writeAsync(missing));
+	}
+	
+	static final void testShutDownExecutor() throws Exception {
+		// The channel cannot run any task, its exception must not escape
+		ExecutorService executor = executor();
+		executor.shutdown();
+		Path file = file("{ a: 1 }");
+		Throwable read = failure(SSDF.readAsync(file, SSDParseOptions.DEFAULT, executor));
+		assertTrue(read.getCause() instanceof RejectedExecutionException, "Wrong cause: " + read);
+		Throwable write = failure(SSDF.read(file).writeAsync(file, executor));
+		assertTrue(write.getCause() instanceof RejectedExecutionException, "Wrong cause: " + write);
+	}
+}
\ No newline at end of file
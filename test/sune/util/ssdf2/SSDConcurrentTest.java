@@ -0,0 +1,158 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDAssert.assertEquals;
+import static sune.util.ssdf2.SSDAssert.assertSame;
+import static sune.util.ssdf2.SSDAssert.assertThrows;
+import static sune.util.ssdf2.SSDAssert.assertTrue;
+import static sune.util.ssdf2.SSDAssert.string;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests of concurrent collections. Nodes put by many threads at once must
+ * not be lost and single operations have to be atomic.*/
+final class SSDConcurrentTest {
+	
+	private static final int THREADS = 8;
+	
+	// Runs the given task in many threads that start at once
+	private static final void inThreads(Task task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS, (r) -> {
+			Thread thread = new Thread(r, "ssdf2-concurrent-test");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for(int t = 0; t < THREADS; ++t) {
+				int thread = t;
+				futures.add(executor.submit((Callable<Void>) () -> {
+					start.await();
+					task.run(thread);
+					return null;
+				}));
+			}
+			start.countDown();
+			for(Future<?> future : futures)
+				future.get(60L, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	static final void testAddToArray() throws Exception {
+		int count = 2000;
+		SSDCollection array = SSDCollection.concurrentArray();
+		inThreads((t) -> {
+			for(int i = 0; i < count; ++i)
+				array.add(t * count + i);
+		});
+		assertEquals(THREADS * count, array.length(), "Items are lost");
+		Set<Integer> values = new HashSet<>();
+		for(int i = 0; i < THREADS * count; ++i)
+			assertTrue(values.add(array.getInt(i)), "Item " + i + " is duplicated");
+		assertEquals(THREADS * count, values.size(), "Items are lost");
+		String[] names = array.objectMap().keySet().toArray(new String[0]);
+		for(int i = 0; i < names.length; ++i)
+			assertEquals(Integer.toString(i), names[i], "Wrong index of an item");
+	}
+	
+	static final void testSetAndRemove() throws Exception {
+		int count = 1000;
+		SSDCollection data = SSDCollection.concurrent();
+		inThreads((t) -> {
+			for(int i = 0; i < count; ++i)
+				data.set("t" + t + "_" + i, i);
+			for(int i = 0; i < count; i += 2)
+				data.remove("t" + t + "_" + i);
+		});
+		assertEquals(THREADS * count / 2, data.objectMap().size(), "Wrong number of nodes");
+		for(int t = 0; t < THREADS; ++t) {
+			for(int i = 1; i < count; i += 2)
+				assertEquals(i, data.getInt("t" + t + "_" + i), "Wrong value");
+		}
+	}
+	
+	static final void testCollectionsOfDottedNames() throws Exception {
+		// All the threads create the same collections at once
+		SSDCollection data = SSDCollection.concurrent();
+		inThreads((t) -> {
+			for(int i = 0; i < 200; ++i)
+				data.set("a" + i % 10 + ".b.t" + t + "_" + i, i);
+		});
+		for(int j = 0; j < 10; ++j) {
+			SSDCollection b = data.getCollection("a" + j + ".b");
+			assertTrue(b.isConcurrent(), "Created collection is not concurrent");
+			assertEquals(THREADS * 20, b.objectMap().size(), "Nodes of a created collection are lost");
+		}
+		assertEquals(10, data.objectMap().size(), "Collection is created more than once");
+	}
+	
+	static final void testRemoveFromArray() throws Exception {
+		SSDCollection array = SSDCollection.concurrentArray();
+		for(int i = 0; i < THREADS * 100; ++i)
+			array.add(i);
+		inThreads((t) -> {
+			for(int i = 0; i < 50; ++i)
+				array.remove(0);
+		});
+		assertEquals(THREADS * 50, array.length(), "Wrong length after removal");
+		String[] names = array.objectMap().keySet().toArray(new String[0]);
+		for(int i = 0; i < names.length; ++i)
+			assertEquals(Integer.toString(i), names[i], "Items are not renumbered");
+	}
+	
+	static final void testIterationIsSnapshot() throws Exception {
+		SSDCollection data = SSDCollection.concurrent();
+		for(int i = 0; i < 100; ++i)
+			data.set("n" + i, i);
+		Iterator<SSDNode> it = data.iterator();
+		data.set("x", 1);
+		data.remove("n0");
+		int count = 0;
+		SSDNode first = it.next();
+		for(++count; it.hasNext(); ++count)
+			it.next();
+		assertEquals(100, count, "Iteration is not over a snapshot");
+		assertEquals("n0", first.getName(), "Iteration is not over a snapshot");
+		Iterator<SSDNode> snapshot = data.iterator();
+		snapshot.next();
+		assertThrows(UnsupportedOperationException.class, snapshot::remove, "Snapshot can be modified");
+		// Reading while other threads write never fails
+		inThreads((t) -> {
+			for(int i = 0; i < 200; ++i) {
+				if((t % 2 == 0)) data.set("w" + t + "_" + i, i);
+				else for(SSDNode node : data) node.getName();
+			}
+		});
+	}
+	
+	static final void testCopiesAreConcurrent() {
+		SSDCollection data = SSDF.read("{ a: { b: [ 1, 2 ] }, c: 3 }");
+		SSDCollection copy = data.toConcurrent();
+		assertTrue(copy.getCollection("a.b").isConcurrent(), "Nested array is not concurrent");
+		assertEquals(string(data), string(copy), "Concurrent copy differs");
+		SSDCollection set = SSDCollection.empty();
+		copy.set("d", set);
+		assertTrue(copy.getCollection("d").isConcurrent(), "Set collection is not concurrent");
+		copy.set("e", copy.getCollection("a"));
+		assertSame(copy.getCollection("a"), copy.getCollection("e"), "Concurrent collection is copied");
+	}
+	
+	@FunctionalInterface
+	private static interface Task {
+		
+		void run(int thread) throws Exception;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDAssert.assertEquals;
+import static sune.util.ssdf2.SSDAssert.assertFalse;
+import static sune.util.ssdf2.SSDAssert.assertNotSame;
+import static sune.util.ssdf2.SSDAssert.assertSame;
+import static sune.util.ssdf2.SSDAssert.assertThrows;
+import static sune.util.ssdf2.SSDAssert.assertTrue;
+import static sune.util.ssdf2.SSDAssert.file;
+import static sune.util.ssdf2.SSDAssert.string;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Tests of the cache of read documents. Frozen reads share the cached
+ * collection, the other reads get independent lossless copies of it.*/
+final class SSDDocumentCacheTest {
+	
+	// Nested nodes with both annotations and comments
+	private static final String DOCUMENT = "{\n"
+		+ "\t/* main */ a: @A(v = 1) /* ann */ {\n"
+		+ "\t\t// nested\n"
+		+ "\t\tb: @B 'x' /* value */,\n"
+		+ "\t\tc: [ @C { d: 1 /* deep */ } /* item */, 2 ]\n"
+		+ "\t},\n"
+		+ "\te: @E(w = [1, 2]) 3.5\n"
+		+ "}";
+	
+	// Changes the content of the file, so that the cache notices it even
+	// when the modification time has a coarse resolution
+	private static final void rewrite(Path file, String content) throws IOException {
+		FileTime time = Files.getLastModifiedTime(file);
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(time.toMillis() + 2000L));
+	}
+	
+	static final void testReadIsLossless() throws IOException {
+		Path file = file(DOCUMENT);
+		SSDDocumentCache cache = new SSDDocumentCache(4);
+		String expected = string(SSDF.read(file));
+		assertEquals(expected, string(cache.read(file)), "Read document differs");
+		assertEquals(expected, string(cache.read(file)), "Cached document differs");
+		assertEquals(expected, string(cache.readFrozen(file)), "Frozen document differs");
+	}
+	
+	static final void testFrozenReadSharesCollection() throws IOException {
+		Path file = file(DOCUMENT);
+		SSDDocumentCache cache = new SSDDocumentCache(4);
+		SSDCollection frozen = cache.readFrozen(file);
+		assertTrue(frozen.isFrozen(), "Cached collection is not frozen");
+		assertSame(frozen, cache.readFrozen(file), "Cache hit does not return the cached collection");
+		assertSame(frozen, cache.readFrozen(file.toFile()), "Cache hit by a file differs");
+		assertThrows(UnsupportedOperationException.class, () -> frozen.set("a.b", "y"),
+		             "Cached collection can be modified");
+		assertEquals(1, cache.size(), "Wrong number of cached documents");
+	}
+	
+	static final void testReadCopiesAreIndependent() throws IOException {
+		Path file = file(DOCUMENT);
+		SSDDocumentCache cache = new SSDDocumentCache(4);
+		String expected = string(SSDF.read(file));
+		SSDCollection first = cache.read(file);
+		assertFalse(first.isFrozen(), "Read copy is frozen");
+		first.set("a.b", "changed");
+		first.getCollection("a").getAnnotation("A").set("v", 2);
+		first.getCollection("a.c.0").addComment(new SSDComment("added", true));
+		SSDCollection second = cache.read(file);
+		assertNotSame(first, second, "Copy is shared");
+		assertEquals(expected, string(second), "Modification of a copy changed the cache");
+		assertEquals(expected, string(cache.readFrozen(file)), "Modification of a copy changed the cache");
+	}
+	
+	static final void testChangedFileIsReadAgain() throws IOException {
+		Path file = file("{ a: 1 }");
+		SSDDocumentCache cache = new SSDDocumentCache(4);
+		SSDCollection old = cache.readFrozen(file);
+		rewrite(file, "{ a: 2, b: 3 }");
+		SSDCollection changed = cache.readFrozen(file);
+		assertNotSame(old, changed, "Changed file is not read again");
+		assertEquals(2, changed.getInt("a"), "Wrong value of the changed file");
+		cache.invalidate(file);
+		assertEquals(0, cache.size(), "Invalidated document is cached");
+		assertNotSame(changed, cache.readFrozen(file), "Invalidated document is not read again");
+	}
+	
+	static final void testLeastRecentlyUsedIsEvicted() throws IOException {
+		SSDDocumentCache cache = new SSDDocumentCache(2);
+		Path a = file("{ a: 1 }"), b = file("{ b: 1 }"), c = file("{ c: 1 }");
+		SSDCollection first = cache.readFrozen(a);
+		cache.readFrozen(b);
+		// Use the first document, so that the second one is the eldest
+		cache.readFrozen(a);
+		cache.readFrozen(c);
+		assertEquals(2, cache.size(), "Maximum size is exceeded");
+		assertSame(first, cache.readFrozen(a), "Recently used document is evicted");
+	}
+}
\ No newline at end of file
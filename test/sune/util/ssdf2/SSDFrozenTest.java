@@ -0,0 +1,156 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDAssert.assertEquals;
+import static sune.util.ssdf2.SSDAssert.assertFalse;
+import static sune.util.ssdf2.SSDAssert.assertNotSame;
+import static sune.util.ssdf2.SSDAssert.assertSame;
+import static sune.util.ssdf2.SSDAssert.assertThrows;
+import static sune.util.ssdf2.SSDAssert.assertTrue;
+import static sune.util.ssdf2.SSDAssert.string;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import sune.util.ssdf2.SSDAssert.Action;
+
+/**
+ * Tests of frozen collections. Neither a frozen collection, nor any of its
+ * nodes, can be modified, and it can be read by many threads at once.*/
+final class SSDFrozenTest {
+	
+	private static final String CONTENT = "{\n"
+		+ "\t/* comment */\n"
+		+ "\ta: @Ann(v = 1) 5,\n"
+		+ "\tb: @Ann(w = 2) { c: [ 1, 2, { d: \"x\" } ] },\n"
+		+ "\te: f(1, \"y\")\n"
+		+ "}";
+	
+	private static final void assertFrozen(Action action, String message) {
+		assertThrows(UnsupportedOperationException.class, action, message + " is not frozen");
+	}
+	
+	static final void testCollectionsCannotBeModified() {
+		SSDCollection data = SSDF.read(CONTENT).freeze();
+		SSDCollection[] colls = {
+			data,
+			data.getCollection("b"),
+			data.getCollection("b.c"),
+			data.getCollection("b.c.2"),
+			data.getCollection("b").getAnnotation("Ann"),
+		};
+		for(SSDCollection c : colls) {
+			String name = "Collection " + c.getFullName();
+			assertTrue(c.isFrozen(), name + " is not frozen");
+			assertFrozen(() -> c.set("n", 1),                             name);
+			assertFrozen(() -> c.set("n.m", "v"),                         name);
+			assertFrozen(() -> c.setNull("n"),                            name);
+			assertFrozen(() -> c.set("n", SSDCollection.empty()),         name);
+			assertFrozen(() -> c.remove("a"),                             name);
+			assertFrozen(() -> c.removeDirect("a"),                       name);
+			// Annotations of annotations are ignored, they are not modifications
+			if(!(c instanceof SSDAnnotation)) {
+				assertFrozen(() -> c.addAnnotation(SSDAnnotation.of("New")), name);
+				assertFrozen(() -> c.removeAnnotation("Ann"),                name);
+			}
+			assertFrozen(() -> c.addComment(SSDComment.of("new")),        name);
+			assertFrozen(() -> c.objectMap().clear(),                     name);
+			assertFrozen(() -> {
+				Iterator<SSDNode> it = c.iterator();
+				it.next();
+				it.remove();
+			}, name);
+		}
+		SSDCollection array = data.getCollection("b.c");
+		assertFrozen(() -> array.add(3),     "Array");
+		assertFrozen(() -> array.set(0, 3),  "Array");
+		assertFrozen(() -> array.remove(0),  "Array");
+		assertEquals(string(SSDF.read(CONTENT)), string(data), "Frozen collection is changed");
+	}
+	
+	static final void testObjectsCannotBeModified() {
+		SSDCollection data = SSDF.read(CONTENT).freeze();
+		SSDObject[] objects = {
+			data.getObject("a"),
+			data.getObject("b.c.0"),
+			data.getObject("b.c.2.d"),
+			data.getObject("a").getAnnotation("Ann").getObject("v"),
+		};
+		for(SSDObject o : objects) {
+			String name = "Object " + o.getFullName();
+			assertTrue(o.isFrozen(), name + " is not frozen");
+			assertFrozen(() -> o.addAnnotation(SSDAnnotation.of("New")), name);
+			assertFrozen(() -> o.removeAnnotation("Ann"),                name);
+			assertFrozen(() -> o.addComment(SSDComment.of("new")),       name);
+		}
+		SSDObject a = data.getObject("a");
+		assertFrozen(() -> a.removeAnnotation(a.getAnnotation("Ann")), "Annotation of an object");
+		assertFrozen(() -> a.removeComment(SSDComment.of("x")),        "Comments of an object");
+	}
+	
+	static final void testFreezeAndThaw() {
+		SSDCollection data   = SSDF.read(CONTENT);
+		SSDCollection frozen = data.freeze();
+		assertNotSame(data, frozen, "Mutable collection is not copied");
+		assertFalse(data.isFrozen(), "Original collection is frozen");
+		assertSame(frozen, frozen.freeze(), "Frozen collection is copied again");
+		assertSame(null, frozen.getParent(), "Frozen copy has a parent");
+		SSDCollection thawed = frozen.thaw();
+		assertFalse(thawed.isFrozen(), "Thawed collection is frozen");
+		assertFalse(thawed.getCollection("b.c").isFrozen(), "Nested collection is frozen");
+		assertFalse(thawed.getObject("a").isFrozen(), "Object is frozen");
+		assertEquals(string(data), string(thawed), "Thawing is not lossless");
+		assertEquals(data.toString(), frozen.toString(), "Frozen collection is written differently");
+		thawed.set("b.c.2.d", "z");
+		thawed.getObject("a").addAnnotation(SSDAnnotation.of("New"));
+		assertEquals("x", frozen.getString("b.c.2.d"), "Frozen collection is changed by its thawed copy");
+		assertEquals(1, frozen.getObject("a").getAnnotations().length, "Frozen object is changed by its thawed copy");
+	}
+	
+	static final void testFrozenNodesAreThawedWhenMoved() {
+		SSDCollection frozen = SSDF.readFrozen(CONTENT);
+		SSDCollection data   = SSDCollection.empty();
+		data.set("b", frozen.getCollection("b"));
+		data.set("a", frozen.getObject("a"));
+		assertFalse(data.getCollection("b").isFrozen(), "Moved collection is frozen");
+		assertFalse(data.getObject("a").isFrozen(), "Moved object is frozen");
+		data.set("b.c.0", 9);
+		assertEquals(1, frozen.getInt("b.c.0"), "Frozen collection is changed");
+	}
+	
+	static final void testConcurrentReads() throws Exception {
+		StringBuilder sb = new StringBuilder("{");
+		for(int i = 0; i < 500; ++i)
+			sb.append("i").append(i).append(": { v: ").append(i).append(", w: [ \"").append(i).append("\" ] },");
+		SSDCollection frozen = SSDF.readFrozen(sb.append('}').toString());
+		String expected = frozen.toString();
+		ExecutorService executor = Executors.newFixedThreadPool(8, (r) -> {
+			Thread thread = new Thread(r, "ssdf2-frozen-test");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for(int t = 0; t < 8; ++t) {
+				futures.add(executor.submit(() -> {
+					for(int n = 0; n < 20; ++n) {
+						for(int i = 0; i < 500; ++i) {
+							assertEquals(i, frozen.getInt("i" + i + ".v"), "Wrong value");
+							assertEquals(Integer.toString(i), frozen.getString("i" + i + ".w.0"), "Wrong item");
+						}
+						assertEquals(expected, frozen.toString(), "Collection is written differently");
+					}
+					return null;
+				}));
+			}
+			for(Future<?> future : futures)
+				future.get(60L, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDAssert.assertEquals;
+import static sune.util.ssdf2.SSDAssert.assertFalse;
+import static sune.util.ssdf2.SSDAssert.assertTrue;
+import static sune.util.ssdf2.SSDAssert.file;
+import static sune.util.ssdf2.SSDAssert.string;
+
+import java.io.IOException;
+
+/**
+ * Tests of lazy reading. Nested collections are only skipped when read and
+ * parsed once they are accessed, the result has to be the same as the one
+ * of reading the content fully.*/
+final class SSDLazyTest {
+	
+	private static final boolean isMaterialized(SSDCollection collection) {
+		return ((SSDLazyMap) collection.objectMap()).isMaterialized();
+	}
+	
+	// Reads the content both from a string and from a file
+	private static final void assertLazy(String content) throws IOException {
+		String full = string(SSDF.read(content));
+		assertEquals(full, string(SSDF.readLazy(content)), "Lazy reading differs");
+		assertEquals(full, string(SSDF.readLazy(file(content))), "Lazy reading of a file differs");
+	}
+	
+	static final void testCollectionsAreParsedOnAccess() {
+		SSDCollection data = SSDF.readLazy("{ a: { b: { c: 1 } }, d: [ 1, 2 ] }");
+		SSDCollection a = data.getCollection("a");
+		assertFalse(isMaterialized(a), "Collection is parsed before being accessed");
+		assertFalse(isMaterialized(data.getCollection("d")), "Array is parsed before being accessed");
+		assertEquals(1, a.getCollection("b").getInt("c"), "Wrong nested value");
+		assertTrue(isMaterialized(a), "Accessed collection is not parsed");
+		assertFalse(isMaterialized(data.getCollection("d")), "Other collection is parsed");
+	}
+	
+	static final void testCommentsOfValues() throws IOException {
+		assertLazy("{ a: { b: 1 /* value */ }, c: 2 }");
+		assertLazy("{ a: [ 5 /* value */, 6 ], b: [ \"}\" /* } */ ], c: 1 }");
+		assertLazy("{ a: { b: 'x' // line\n }, c: 1 }");
+	}
+	
+	static final void testTrailingCommentsOfSkippedCollections() throws IOException {
+		// Belong to the next item of the parent, as when read fully
+		assertLazy("{ a: { b: { c: 1 } /* after */ }, d: 2 }");
+		assertLazy("{ a: { /* empty */ }, b: 1 }");
+		assertLazy("{ a: [ [ 1 ] // line\n ] /* outer */, b: [ 2 ] }");
+		SSDCollection data = SSDF.readLazy("{ a: { b: { c: 1 } /* after */ }, d: 2 }");
+		data.getCollection("a").getCollection("b");
+		SSDComment[] comments = data.getObject("d").getComments();
+		assertEquals(1, comments.length, "Trailing comment is not kept");
+		assertEquals(" after ", comments[0].getContent(), "Wrong trailing comment");
+	}
+	
+	static final void testManyTrailingComments() throws IOException {
+		// More comments than events the reader queues at once
+		StringBuilder sb = new StringBuilder("{ a: { b: 1");
+		for(int i = 0; i < 20; ++i)
+			sb.append(" /* c").append(i).append(" */");
+		assertLazy(sb.append(" }, c: { d: 1 } /* last */ }").toString());
+	}
+	
+	static final void testAnnotationsAndFunctionCalls() throws IOException {
+		assertLazy("{ a: @A(v = 1) /* ann */ { b: [ 1, 2 ] /* tail */ }, c: f(1) }");
+		assertLazy("{ a: [ { b: 1 } /* item */, { b: 2 } ], c: { d: 'x' /* q */ } }");
+	}
+}
\ No newline at end of file
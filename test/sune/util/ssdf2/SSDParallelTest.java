@@ -0,0 +1,63 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDAssert.assertEquals;
+import static sune.util.ssdf2.SSDAssert.file;
+import static sune.util.ssdf2.SSDAssert.string;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Tests of parsing of the main array in parallel. The arrays are long enough
+ * to be split into batches, the result has to be the same as the one of
+ * sequential parsing.*/
+final class SSDParallelTest {
+	
+	private static final int COUNT = 10000;
+	
+	// Creates an array of the given items, $ is replaced by the item's index
+	private static final String array(String item) {
+		StringBuilder sb = new StringBuilder("[\n");
+		for(int i = 0; i < COUNT; ++i) {
+			if((i > 0)) sb.append(",\n");
+			sb.append(item.replace("$", Integer.toString(i)));
+		}
+		return sb.append("\n]").toString();
+	}
+	
+	private static final void assertParallel(String item) {
+		String content = array(item);
+		assertEquals(string(SSDF.read(content)), string(SSDF.readParallel(content)),
+		             "Parallel parsing of " + item + " differs");
+	}
+	
+	static final void testPlainItems() {
+		SSDCollection array = SSDF.readParallel(array("{ a: $, b: \"text, $\" }"));
+		assertEquals(COUNT, array.length(), "Wrong number of items");
+		assertEquals("text, 1234", array.getString("1234.b"), "Wrong value of an item");
+	}
+	
+	static final void testCommentsAfterCollections() {
+		// Belong to the next item, even when a batch ends at the delimiter
+		assertParallel("{ a: $, b: [1, 2] } /* item $ */");
+		assertParallel("[ $ ] // item $\n");
+		assertParallel("f($) /* call */");
+	}
+	
+	static final void testCommentsAfterValues() {
+		// Belong to the value they follow
+		assertParallel("$ /* value $ */");
+		assertParallel("'s$' // value\n");
+	}
+	
+	static final void testNestedCommentsAndAnnotations() {
+		assertParallel("{ /* first */ a: $, b: { c: $ /* c */ } }");
+		assertParallel("@Ann(v = $) /* ann */ { a: $ } /* item */");
+	}
+	
+	static final void testFile() throws IOException {
+		String content = array("{ a: \"ž $\" } /* item $ */");
+		Path file = file(content);
+		assertEquals(string(SSDF.read(file)), string(SSDF.readParallel(file)), "Parallel parsing of a file differs");
+	}
+}
\ No newline at end of file
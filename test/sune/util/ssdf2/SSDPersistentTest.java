@@ -0,0 +1,140 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDAssert.assertEquals;
+import static sune.util.ssdf2.SSDAssert.assertNotSame;
+import static sune.util.ssdf2.SSDAssert.assertSame;
+import static sune.util.ssdf2.SSDAssert.assertTrue;
+import static sune.util.ssdf2.SSDAssert.string;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests of persistent collections. Copies have to keep all the annotations
+ * and comments and be independent of each other, including the nodes they
+ * share, even when a single collection is copied by many threads at once.*/
+final class SSDPersistentTest {
+	
+	private static final String CONTENT = "{\n"
+		+ "\ta: /* ann */ @A(v = 1) /* main */ {\n"
+		+ "\t\tb: /* inner */ @B 1 /* value */,\n"
+		+ "\t\tc: [ /* item */ @C { d: 1 } ],\n"
+		+ "\t\tx: \"text\",\n"
+		+ "\t\tf: f(1)\n"
+		+ "\t}\n"
+		+ "}";
+	
+	private static final SSDCollection persistent() {
+		return SSDF.read(CONTENT).getCollection("a").toPersistent();
+	}
+	
+	private static final String expected() {
+		return string(SSDF.read(CONTENT).getCollection("a").thaw());
+	}
+	
+	static final void testCopiesKeepAnnotationsAndComments() {
+		SSDCollection persistent = persistent();
+		assertTrue(persistent.isPersistent(), "Collection is not persistent");
+		assertEquals(expected(), string(persistent), "Persistent collection differs");
+		SSDCollection copy = persistent.copy();
+		assertTrue(copy.isPersistent(), "Copy is not persistent");
+		assertTrue(copy.getCollection("c.0").isPersistent(), "Nested collection of a copy is not persistent");
+		assertEquals(expected(), string(copy), "Copy of a persistent collection differs");
+	}
+	
+	static final void testCopiesAreIndependent() {
+		SSDCollection persistent = persistent();
+		SSDCollection copy = persistent.copy();
+		copy.set("b", 2);
+		copy.getAnnotation("A").set("v", 2);
+		copy.getCollection("c.0").set("d", 2);
+		copy.set("c.1", 3);
+		assertEquals(expected(), string(persistent), "Original collection is changed by its copy");
+		// Changes of the original are not seen by the copy either
+		SSDCollection other = persistent.copy();
+		persistent.getCollection("c.0").set("d", 5);
+		persistent.remove("x");
+		assertEquals(1, other.getInt("c.0.d"), "Copy is changed by its original");
+		assertEquals("text", other.getString("x"), "Copy is changed by its original");
+		assertEquals(2, copy.getInt("c.0.d"), "Copy is changed by other copy");
+	}
+	
+	static final void testAnnotationsOfSharedObjects() {
+		SSDCollection persistent = persistent();
+		SSDCollection copy = persistent.copy();
+		copy.set("x:Meta", SSDAnnotation.of("Meta"));
+		copy.getObject("b").addAnnotation(SSDAnnotation.of("Added"));
+		copy.getCollection("c.0").addAnnotation(SSDAnnotation.of("Added"));
+		copy.getObject("f").addComment(SSDComment.of("comment"));
+		assertEquals(expected(), string(persistent), "Original nodes are annotated by a copy");
+		assertTrue(copy.getObject("x").getAnnotation("Meta") != null, "Annotation of a copy is lost");
+		assertTrue(copy.getObject("b").getAnnotation("Added") != null, "Annotation of a copy is lost");
+		// Annotations added to the original are not seen by a copy made before
+		SSDCollection other = persistent.copy();
+		persistent.set("b:Meta", SSDAnnotation.of("Meta"));
+		assertEquals(null, other.getObject("b").getAnnotation("Meta"), "Copy is annotated by its original");
+		assertEquals(null, copy.getObject("b").getAnnotation("Meta"), "Copy is annotated by its original");
+	}
+	
+	static final void testParentsOfNodes() {
+		SSDCollection persistent = persistent();
+		SSDCollection copy = persistent.copy();
+		for(String name : new String[] { "b", "c", "x", "f" }) {
+			assertSame(copy, copy.get(name).getParent(), "Wrong parent of " + name + " of a copy");
+			assertSame(persistent, persistent.get(name).getParent(), "Wrong parent of " + name);
+		}
+		assertSame(copy.getCollection("c"), copy.getCollection("c.0").getParent(), "Wrong parent of a nested collection");
+		assertNotSame(persistent.get("x"), copy.get("x"), "Object is shared by a copy");
+		assertSame(copy.get("x"), copy.get("x"), "Object of a copy is copied again");
+		for(SSDNode node : copy)
+			assertSame(copy, node.getParent(), "Wrong parent of iterated " + node.getName());
+	}
+	
+	static final void testConcurrentCopies() throws Exception {
+		int threads = 8;
+		SSDCollection base = persistent();
+		for(int i = 0; i < 200; ++i)
+			base.set("n" + i + ".v", i);
+		String expected = string(base);
+		ExecutorService executor = Executors.newFixedThreadPool(threads, (r) -> {
+			Thread thread = new Thread(r, "ssdf2-persistent-test");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for(int t = 0; t < threads; ++t) {
+				int thread = t;
+				futures.add(executor.submit((Callable<Void>) () -> {
+					start.await();
+					for(int n = 0; n < 50; ++n) {
+						SSDCollection copy = base.copy();
+						assertEquals(100, base.getInt("n100.v"), "Wrong value of the base");
+						for(int i = 0; i < 200; ++i)
+							copy.set("n" + i + ".v", thread);
+						copy.set("x:T" + thread, SSDAnnotation.of("T" + thread));
+						copy.getAnnotation("A").set("v", thread);
+						for(int i = 0; i < 200; ++i)
+							assertEquals(thread, copy.getInt("n" + i + ".v"), "Copy is changed by other copy");
+						assertEquals(1, copy.getObject("x").getAnnotations().length, "Object is annotated by other copy");
+						assertSame(copy, copy.getCollection("n0").getParent(), "Wrong parent of a nested collection");
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for(Future<?> future : futures)
+				future.get(60L, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(expected, string(base), "Base is changed by its copies");
+	}
+}
\ No newline at end of file
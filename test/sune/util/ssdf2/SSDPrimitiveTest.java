@@ -0,0 +1,79 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDAssert.assertEquals;
+import static sune.util.ssdf2.SSDAssert.assertSame;
+import static sune.util.ssdf2.SSDAssert.assertThrows;
+import static sune.util.ssdf2.SSDAssert.assertTrue;
+
+/**
+ * Tests of objects of primitive values. They have to be read, converted and
+ * written the same way as the objects of text values were, numbers with
+ * the plus sign stay regular objects.*/
+final class SSDPrimitiveTest {
+	
+	private static final SSDObject object(String value) {
+		return SSDF.read("{ v: " + value + " }").getObject("v");
+	}
+	
+	static final void testPrimitiveObjects() {
+		SSDCollection data = SSDF.read("{ a: 5, b: -1.5, c: true, d: null, e: \"5\" }");
+		assertTrue(data.getObject("a") instanceof SSDPrimitive.OfLong,    "Integer is not primitive");
+		assertTrue(data.getObject("b") instanceof SSDPrimitive.OfDouble,  "Decimal is not primitive");
+		assertTrue(data.getObject("c") instanceof SSDPrimitive.OfBoolean, "Boolean is not primitive");
+		assertTrue(data.getObject("d") instanceof SSDPrimitive.OfNull,    "Null is not primitive");
+		assertSame(SSDObject.class, data.getObject("e").getClass(), "String is primitive");
+		assertEquals(SSDType.INTEGER, data.getObject("a").getType(), "Wrong type of an integer");
+		assertEquals(SSDType.DECIMAL, data.getObject("b").getType(), "Wrong type of a decimal");
+		assertEquals(SSDType.BOOLEAN, data.getObject("c").getType(), "Wrong type of a boolean");
+		assertEquals(SSDType.NULL,    data.getObject("d").getType(), "Wrong type of null");
+	}
+	
+	static final void testNumbersWithPlusSign() {
+		SSDCollection data = SSDF.read("{ a: +1.5, b: +5, c: 1.5, d: 5 }");
+		assertSame(SSDObject.class, data.getObject("a").getClass(), "Decimal with the plus sign is primitive");
+		assertSame(SSDObject.class, data.getObject("b").getClass(), "Integer with the plus sign is primitive");
+		assertEquals(1.5, data.getObject("a").doubleValue(), "Wrong value of a decimal with the plus sign");
+		assertEquals(5L,  data.getObject("b").longValue(),   "Wrong value of an integer with the plus sign");
+		// Both numbers with the plus sign are written the same way
+		String text = data.toString();
+		assertTrue(text.contains("a:  + 1.5,") && text.contains("b:  + 5,"), "Numbers are written differently: " + text);
+		assertEquals("{a:+1.5,b:+5,c:1.5,d:5}", data.toString(true), "Compressed numbers are written differently");
+	}
+	
+	static final void testConversions() {
+		SSDObject integer = object("300");
+		assertEquals(300,    integer.intValue(),    "Wrong int value");
+		assertEquals(300.0,  integer.doubleValue(), "Wrong double value");
+		assertEquals("300",  integer.stringValue(), "Wrong string value");
+		assertEquals((short) 300, integer.shortValue(), "Wrong short value");
+		// Values out of range fail the same way as parsing of the text
+		assertThrows(NumberFormatException.class, integer::byteValue, "Byte value out of range");
+		assertThrows(NumberFormatException.class, object("5000000000")::intValue, "Int value out of range");
+		assertEquals(5000000000L, object("5000000000").longValue(), "Wrong long value");
+		assertThrows(NumberFormatException.class, object("1.5")::intValue, "Int value of a decimal");
+		assertEquals(true,   object("true").booleanValue(), "Wrong boolean value");
+		assertEquals(false,  object("1").booleanValue(),    "Integer is true");
+		assertEquals("null", object("null").stringValue(),  "Wrong text of null");
+	}
+	
+	static final void testWrittenText() {
+		// Decimals keep the text they were written with
+		String content = "{a:1.50,b:-0.0,c:1e3,d:9223372036854775807,e:true,f:null}";
+		SSDCollection data = SSDF.read(content);
+		assertEquals(content, data.toString(true), "Primitive values are written differently");
+		assertEquals("1.50", data.getString("a"), "Text of a decimal is not kept");
+		assertEquals(1000.0, data.getDouble("c"), "Wrong value of an exponent");
+		assertEquals(Long.MAX_VALUE, data.getLong("d"), "Wrong value of the maximum integer");
+	}
+	
+	static final void testCopies() {
+		SSDCollection data = SSDF.read("{ a: 1, b: 1.50, c: false, d: null }");
+		SSDCollection copy = data.copy();
+		for(String name : new String[] { "a", "b", "c", "d" }) {
+			SSDObject object = copy.getObject(name);
+			assertSame(data.getObject(name).getClass(), object.getClass(), "Wrong class of a copy of " + name);
+			assertEquals(data.getObject(name).stringValue(), object.stringValue(), "Wrong value of a copy of " + name);
+		}
+		assertEquals(data.toString(true), copy.toString(true), "Copy is written differently");
+	}
+}
\ No newline at end of file
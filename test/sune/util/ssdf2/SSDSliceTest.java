@@ -0,0 +1,51 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDAssert.assertEquals;
+import static sune.util.ssdf2.SSDAssert.file;
+import static sune.util.ssdf2.SSDAssert.string;
+
+import java.io.IOException;
+
+/**
+ * Tests of string values that are slices of the read content. They have to
+ * be read, unescaped and written the same way as the copied values.*/
+final class SSDSliceTest {
+	
+	private static final SSDParseOptions SLICES
+		= SSDParseOptions.builder().stringSlices(true).build();
+	
+	private static final String CONTENT = "{\n"
+		+ "\tplain: \"text\",\n"
+		+ "\tsingle: 'single quoted',\n"
+		+ "\tescaped: \"quote \\\" and \\\\ backslash\",\n"
+		+ "\tunicode: \"žluťoučký kůň\",\n"
+		+ "\tempty: \"\",\n"
+		+ "\tnested: [ \"a, b\", { c: \"} ]\" } ]\n"
+		+ "}";
+	
+	static final void testValuesOfContent() {
+		SSDCollection copied = SSDF.read(CONTENT);
+		SSDCollection sliced = SSDF.read(CONTENT, SLICES);
+		assertEquals(string(copied), string(sliced), "Sliced values are written differently");
+		assertEquals(copied.toJSON(), sliced.toJSON(), "Sliced values are written differently to JSON");
+		for(String name : new String[] { "plain", "single", "escaped", "unicode", "empty", "nested.0", "nested.1.c" })
+			assertEquals(copied.getString(name), sliced.getString(name), "Wrong value of " + name);
+		assertEquals("quote \" and \\ backslash", sliced.getString("escaped"), "Value is not unescaped");
+	}
+	
+	static final void testValuesOfFile() throws IOException {
+		// Non-ASCII values of bytes are copied, the others are sliced
+		SSDCollection sliced = SSDF.read(file(CONTENT), SLICES);
+		assertEquals(string(SSDF.read(CONTENT)), string(sliced), "Sliced values of a file differ");
+		assertEquals("žluťoučký kůň", sliced.getString("unicode"), "Wrong value of a non-ASCII string");
+	}
+	
+	static final void testSlicedValuesCanBeReplaced() {
+		SSDCollection sliced = SSDF.read(CONTENT, SLICES);
+		sliced.set("plain", "changed");
+		sliced.getCollection("nested").set("1.c", "x");
+		assertEquals("changed", sliced.getString("plain"), "Value is not replaced");
+		assertEquals("x", sliced.getString("nested.1.c"), "Nested value is not replaced");
+		assertEquals("single quoted", sliced.getString("single"), "Other value is changed");
+	}
+}
\ No newline at end of file
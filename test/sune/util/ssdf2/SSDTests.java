@@ -0,0 +1,66 @@
+package sune.util.ssdf2;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Runs all the tests. A test is a static method without any parameters, whose
+ * name starts with {@code test}, of one of the test classes. Exits with
+ * a non-zero status, if any of the tests fails.*/
+public final class SSDTests {
+	
+	private static final Class<?>[] CLASSES = {
+		SSDParallelTest.class,
+		SSDLazyTest.class,
+		SSDAsyncTest.class,
+		SSDDocumentCacheTest.class,
+		SSDWatcherTest.class,
+		SSDSliceTest.class,
+		SSDArrayMapTest.class,
+		SSDPrimitiveTest.class,
+		SSDFrozenTest.class,
+		SSDConcurrentTest.class,
+		SSDPersistentTest.class,
+	};
+	
+	// Forbid anyone to create an instance of this class
+	private SSDTests() {
+	}
+	
+	public static void main(String[] args) {
+		int run = 0, failed = 0;
+		for(Class<?> clazz : CLASSES) {
+			Method[] methods = clazz.getDeclaredMethods();
+			// The order of declared methods is not specified
+			Arrays.sort(methods, Comparator.comparing(Method::getName));
+			for(Method method : methods) {
+				if(!method.getName().startsWith("test")
+						|| !Modifier.isStatic(method.getModifiers())
+						|| method.getParameterCount() != 0)
+					continue;
+				String name = clazz.getSimpleName() + "." + method.getName();
+				++run;
+				try {
+					method.setAccessible(true);
+					method.invoke(null);
+				} catch(InvocationTargetException ex) {
+					++failed;
+					System.out.println("FAILED " + name);
+					ex.getCause().printStackTrace(System.out);
+					continue;
+				} catch(ReflectiveOperationException ex) {
+					++failed;
+					System.out.println("FAILED " + name + ": " + ex);
+					continue;
+				}
+				System.out.println("passed " + name);
+			}
+		}
+		System.out.println(run + " tests, " + failed + " failed");
+		if((failed > 0))
+			System.exit(1);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package sune.util.ssdf2;
+
+import static sune.util.ssdf2.SSDAssert.assertEquals;
+import static sune.util.ssdf2.SSDAssert.assertFalse;
+import static sune.util.ssdf2.SSDAssert.assertSame;
+import static sune.util.ssdf2.SSDAssert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests of watching of a file. The file is changed in a directory of its
+ * own and the published versions and changed paths are checked.*/
+final class SSDWatcherTest {
+	
+	private static final long TIMEOUT = 30L;
+	
+	private static final Path directory() throws IOException {
+		Path dir = Files.createTempDirectory("ssdf2-watcher");
+		dir.toFile().deleteOnExit();
+		return dir;
+	}
+	
+	private static final void write(Path file, String content) throws IOException {
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private static final Set<String> set(String... names) {
+		return new LinkedHashSet<>(Arrays.asList(names));
+	}
+	
+	private static final <T> T next(BlockingQueue<T> queue, String message) throws InterruptedException {
+		T item = queue.poll(TIMEOUT, TimeUnit.SECONDS);
+		assertTrue(item != null, message);
+		return item;
+	}
+	
+	// The file may also be read while it is being written, skip such errors
+	private static final Exception nextError(BlockingQueue<Exception> errors, Class<?> clazz,
+			String message) throws InterruptedException {
+		for(Exception error;;) {
+			error = next(errors, message);
+			if((clazz.isInstance(error)))
+				return error;
+		}
+	}
+	
+	static final void testRewrittenFile() throws Exception {
+		Path file = directory().resolve("data.ssdf");
+		write(file, "{ a: 1, b: { c: 2, d: 3 } }");
+		BlockingQueue<Set<String>> changes = new LinkedBlockingQueue<>();
+		try(SSDWatcher watcher = new SSDWatcher(file)) {
+			SSDCollection first = watcher.get();
+			assertTrue(first.isFrozen(), "Published version is not frozen");
+			watcher.addListener((prev, next, paths) -> {
+				assertSame(first, prev, "Wrong previous version");
+				changes.add(paths);
+			});
+			write(file, "{ a: 1, b: { c: 5, d: 3 }, e: 4 }");
+			assertEquals(set("b.c", "e"), next(changes, "Change is not published"), "Wrong changed paths");
+			SSDCollection second = watcher.get();
+			assertTrue(second.isFrozen(), "Published version is not frozen");
+			assertEquals(5, second.getInt("b.c"), "Wrong published version");
+		}
+	}
+	
+	static final void testAtomicallyReplacedFile() throws Exception {
+		Path dir  = directory();
+		Path file = dir.resolve("data.ssdf");
+		write(file, "{ a: 1, b: [1, 2] }");
+		BlockingQueue<Set<String>> changes = new LinkedBlockingQueue<>();
+		try(SSDWatcher watcher = new SSDWatcher(file)) {
+			watcher.addListener((prev, next, paths) -> changes.add(paths));
+			Path temp = dir.resolve("data.tmp");
+			write(temp, "{ a: 1, b: [1, 3, 4] }");
+			Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			assertEquals(set("b.1", "b.2"), next(changes, "Change is not published"), "Wrong changed paths");
+			assertEquals(3, watcher.get().getCollection("b").length(), "Wrong published version");
+		}
+	}
+	
+	static final void testErrorsAreReported() throws Exception {
+		Path file = directory().resolve("data.ssdf");
+		write(file, "{ a: 1 }");
+		BlockingQueue<Exception> errors = new LinkedBlockingQueue<>();
+		try(SSDWatcher watcher = new SSDWatcher(file)) {
+			SSDCollection first = watcher.get();
+			watcher.addErrorListener(errors::add);
+			watcher.addListener((prev, next, paths) -> {
+				throw new IllegalArgumentException("listener");
+			});
+			write(file, "{ a: 2 }");
+			Exception error = nextError(errors, IllegalArgumentException.class,
+			                            "Exception of a listener is not reported");
+			assertEquals("listener", error.getMessage(), "Wrong reported exception");
+			// The current version is kept, when the file goes away
+			Files.delete(file);
+			nextError(errors, NoSuchFileException.class, "Deletion is not reported");
+			assertFalse(watcher.get() == first, "Changed version is not published");
+			assertEquals(2, watcher.get().getInt("a"), "Current version is not kept");
+		}
+	}
+	
+	static final void testCloseStopsWatching() throws Exception {
+		Path file = directory().resolve("data.ssdf");
+		write(file, "{ a: 1 }");
+		BlockingQueue<Set<String>> changes = new LinkedBlockingQueue<>();
+		SSDWatcher watcher = new SSDWatcher(file);
+		watcher.addListener((prev, next, paths) -> changes.add(paths));
+		watcher.close();
+		write(file, "{ a: 2 }");
+		assertTrue(changes.poll(1L, TimeUnit.SECONDS) == null, "Closed watcher notifies listeners");
+		assertEquals(1, watcher.get().getInt("a"), "Closed watcher reads the file");
+	}
+	
+	static final void testCloseFromListener() throws Exception {
+		Path file = directory().resolve("data.ssdf");
+		write(file, "{ a: 1 }");
+		BlockingQueue<Boolean> closed = new LinkedBlockingQueue<>();
+		SSDWatcher watcher = new SSDWatcher(file);
+		watcher.addListener((prev, next, paths) -> {
+			try {
+				watcher.close();
+				closed.add(true);
+			} catch(IOException ex) {
+				closed.add(false);
+			}
+		});
+		write(file, "{ a: 2 }");
+		assertTrue(next(closed, "Listener is not notified"), "Watcher cannot be closed by a listener");
+	}
+}
\ No newline at end of file